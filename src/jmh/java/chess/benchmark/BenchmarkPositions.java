@@ -0,0 +1,39 @@
+package chess.benchmark;
+
+import java.util.Map;
+
+/**
+ * Fixed positions shared by all benchmarks, so numbers are comparable between runs.
+ */
+final class BenchmarkPositions {
+    static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - ";
+    static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - ";
+    static final String MID = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - ";
+    static final String END = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - ";
+
+    /**
+     * Move in short algebraic notation parsed in each position.
+     */
+    static final Map<String, String> SHORT_ALGEBRAIC = Map.of(
+            START, "Nf3",
+            KIWIPETE, "Bxa6",
+            MID, "Kh1",
+            END, "Rxf4+"
+    );
+
+    private BenchmarkPositions() {
+    }
+
+    /**
+     * @param name one of START, KIWIPETE, MID, END
+     */
+    static String fen(String name) {
+        return switch (name) {
+            case "START" -> START;
+            case "KIWIPETE" -> KIWIPETE;
+            case "MID" -> MID;
+            case "END" -> END;
+            default -> throw new IllegalArgumentException("Unknown benchmark position: " + name);
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package chess.benchmark;
+
+import chess.Position;
+import chess.board.ChessBoard;
+import chess.board.features.ChessBoardUtility;
+import chess.color.Color;
+import chess.formats.fen.FENParser;
+import chess.moves.raw.RawMove;
+import chess.moves.valid.executable.ExecutableMove;
+import chess.results.MoveResult;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessBoardBenchmark {
+    @Param({"START", "KIWIPETE", "MID", "END"})
+    private String position;
+    private ChessBoard chessBoard;
+    private List<ExecutableMove> executableMoves;
+    private List<RawMove> rawMoves;
+    private List<Position> positions;
+
+    @Setup
+    public void setup() {
+        chessBoard = FENParser.getInstance().parseFEN(BenchmarkPositions.fen(position));
+        executableMoves = chessBoard.getGenerator().getAllPossibleExecutableMoves();
+        rawMoves = executableMoves.stream().map(ExecutableMove::getRepresentation).toList();
+        positions = chessBoard.getUtility().getAllPositions();
+    }
+
+    @Benchmark
+    public List<ExecutableMove> generateExecutableMoves() {
+        return chessBoard.getGenerator().getAllPossibleExecutableMoves();
+    }
+
+    /**
+     * Makes every legal move of position with {@link ChessBoard#makeMove(ExecutableMove)}.
+     */
+    @Benchmark
+    public void makeExecutableMoves(Blackhole blackhole) {
+        for (ExecutableMove move : executableMoves) {
+            blackhole.consume(chessBoard.makeMove(move));
+        }
+    }
+
+    /**
+     * Makes every legal move of position with {@link ChessBoard#makeMove(RawMove)}, including validation.
+     */
+    @Benchmark
+    public void makeRawMoves(Blackhole blackhole) {
+        for (RawMove move : rawMoves) {
+            MoveResult result = chessBoard.makeMove(move);
+            blackhole.consume(result);
+        }
+    }
+
+    /**
+     * Checks all squares of board against both colors.
+     */
+    @Benchmark
+    public void isPositionAttacked(Blackhole blackhole) {
+        ChessBoardUtility utility = chessBoard.getUtility();
+        for (Position square : positions) {
+            blackhole.consume(utility.isPositionAttacked(square, Color.white));
+            blackhole.consume(utility.isPositionAttacked(square, Color.black));
+        }
+    }
+}
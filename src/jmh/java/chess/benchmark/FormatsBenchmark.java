@@ -0,0 +1,42 @@
+package chess.benchmark;
+
+import chess.board.ChessBoard;
+import chess.formats.algebraic.ShortAlgebraicParser;
+import chess.formats.fen.FENParser;
+import chess.moves.raw.RawMove;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatsBenchmark {
+    @Param({"START", "KIWIPETE", "MID", "END"})
+    private String position;
+    private final FENParser fenParser = FENParser.getInstance();
+    private final ShortAlgebraicParser shortAlgebraicParser = new ShortAlgebraicParser();
+    private String fen;
+    private String move;
+    private ChessBoard chessBoard;
+
+    @Setup
+    public void setup() {
+        fen = BenchmarkPositions.fen(position);
+        move = BenchmarkPositions.SHORT_ALGEBRAIC.get(fen);
+        chessBoard = fenParser.parseFEN(fen);
+    }
+
+    @Benchmark
+    public ChessBoard parseFEN() {
+        return fenParser.parseFEN(fen);
+    }
+
+    @Benchmark
+    public RawMove parseShortAlgebraic() {
+        return shortAlgebraicParser.parseShortAlgebraic(move, chessBoard);
+    }
+}
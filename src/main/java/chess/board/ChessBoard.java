@@ -1,10 +1,15 @@
 package chess.board;
 
+import chess.board.features.AttackMap;
 import chess.board.features.ChessBoardUtility;
 import chess.board.features.ExecutableMoveGenerator;
+import chess.board.features.KingSafetyAnalyzer;
+import chess.board.features.LegalMoveCache;
 import chess.board.fields.OccupiedField;
+import chess.board.lowlevel.Attacks;
 import chess.board.lowlevel.Board;
 import chess.board.lowlevel.BoardWrapper;
+import chess.board.lowlevel.Zobrist;
 import chess.board.fields.Field;
 import chess.board.requirements.CastleRequirements;
 import chess.board.requirements.CastleRequirementsFactory;
@@ -27,12 +32,16 @@ public class ChessBoard {
     private final Board board;
     private final Color color;
     private final CastleRequirements castleRequirements;
-    private final ValidMove lastMove;
+    private final RawMove lastMove;
     private final BoardWrapper boardWrapper = new BoardWrapper(this);
     private final ChessBoardUtility utility = new ChessBoardUtility(this);
     private final CastleRequirementsFactory castleRequirementsFactory = new CastleRequirementsFactory(this);
     private final Position whiteKingPosition;
     private final Position blackKingPosition;
+    private final int enPassantFile;
+    private final long zobrist;
+    private KingSafetyAnalyzer kingSafety;
+    private AttackMap attackMap;
 
     public ChessBoard() {
         board = Board.getStart();
@@ -41,6 +50,8 @@ public class ChessBoard {
         lastMove = null;
         whiteKingPosition = Position.of(5, 1);
         blackKingPosition = Position.of(5, 8);
+        enPassantFile = 0;
+        zobrist = computeZobrist();
     }
 
     public ChessBoard(Board board,
@@ -49,12 +60,50 @@ public class ChessBoard {
                       ValidMove moveCreatingBoard,
                       Position whiteKingPosition,
                       Position blackKingPosition) {
+        this(board,
+                color,
+                castleRequirements,
+                moveCreatingBoard == null ? 0 : doubleStepFile(board, color, moveCreatingBoard.getRepresentation()),
+                moveCreatingBoard == null ? null : moveCreatingBoard.getRepresentation(),
+                whiteKingPosition,
+                blackKingPosition);
+    }
+
+    /**
+     * @param enPassantFile file of enemy pawn which just made double step or 0, kept only if it can be captured
+     * @param lastMove      move creating board or null, kept only as information and not used for move rules
+     */
+    public ChessBoard(Board board,
+                      Color color,
+                      CastleRequirements castleRequirements,
+                      int enPassantFile,
+                      RawMove lastMove,
+                      Position whiteKingPosition,
+                      Position blackKingPosition) {
         this.board = board;
         this.color = color;
         this.castleRequirements = castleRequirements;
-        this.lastMove = moveCreatingBoard;
+        this.lastMove = lastMove;
         this.whiteKingPosition = whiteKingPosition;
         this.blackKingPosition = blackKingPosition;
+        this.enPassantFile = enPassantFile != 0 && Attacks.canCaptureEnPassant(board, color, enPassantFile) ? enPassantFile : 0;
+        this.zobrist = computeZobrist();
+    }
+
+    /**
+     * @return file of pawn moved by two squares in move or 0
+     */
+    private static int doubleStepFile(Board board, Color color, RawMove move) {
+        Position end = move.getEndPosition();
+        if (Math.abs(end.getY() - move.getStartPosition().getY()) != 2
+                || board.read(end) != Board.getId(Piece.Type.PAWN, color.swap())) {
+            return 0;
+        }
+        return end.getX();
+    }
+
+    private long computeZobrist() {
+        return Zobrist.key(board, color, castleRequirements.getMask(), enPassantFile);
     }
 
     public static ChessBoard getBlank(Color color) {
@@ -92,6 +141,7 @@ public class ChessBoard {
                 boardWrapper.putFieldToBoard(new OccupiedField(piece)),
                 color,
                 castleRequirements,
+                enPassantFile,
                 lastMove,
                 nextWhiteKingPosition,
                 nextBlackKingPosition);
@@ -102,7 +152,17 @@ public class ChessBoard {
     }
 
     public MoveResult makeMove(RawMove move) {
-        Optional<ValidMove> optionalValidMove = new ValidMoveFactory(this).createValidMove(move);
+        return makeMove(move, new ValidMoveFactory(this).createValidMove(move));
+    }
+
+    /**
+     * Validates move with legal moves from cache, for moves made repeatedly in the same positions while browsing.
+     */
+    public MoveResult makeMove(RawMove move, LegalMoveCache cache) {
+        return makeMove(move, new ValidMoveFactory(this, cache).createValidMove(move));
+    }
+
+    private MoveResult makeMove(RawMove move, Optional<ValidMove> optionalValidMove) {
         if (optionalValidMove.isPresent()) {
             ValidMove validMove = optionalValidMove.get();
             if (validMove.isExecutable()) {
@@ -161,14 +221,23 @@ public class ChessBoard {
 
         ChessBoard that = (ChessBoard) o;
 
-        return board.equals(that.board) && color.equal(that.color) && castleRequirements.equals(that.castleRequirements);
+        return zobrist == that.zobrist
+                && board.equals(that.board)
+                && color.equal(that.color)
+                && castleRequirements.equals(that.castleRequirements)
+                && enPassantFile == that.enPassantFile;
     }
 
     @Override
     public int hashCode() {
-        int result = board.hashCode();
-        result = 31 * result + color.hashCode();
-        return result;
+        return Long.hashCode(zobrist);
+    }
+
+    /**
+     * @return 64-bit Zobrist key covering pieces, side to move, castle rights and en passant file
+     */
+    public long zobrist() {
+        return zobrist;
     }
 
     public Board getBoard() {
@@ -179,14 +248,51 @@ public class ChessBoard {
         return castleRequirements;
     }
 
-    public Optional<ValidMove> getLastMove() {
+    public Optional<RawMove> getLastMove() {
         return Optional.ofNullable(lastMove);
     }
 
+    /**
+     * @return file of pawn which can be captured en passant or 0
+     */
+    public int getEnPassantFile() {
+        return enPassantFile;
+    }
+
+    /**
+     * @return square behind pawn which can be captured en passant
+     */
+    public Optional<Position> getEnPassantPosition() {
+        if (enPassantFile == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(Position.of(enPassantFile, color.isWhite() ? 6 : 3));
+    }
+
     public ChessBoardUtility getUtility() {
         return utility;
     }
 
+    /**
+     * @return pins and checks of side to move, computed on first use
+     */
+    public KingSafetyAnalyzer getKingSafety() {
+        if (kingSafety == null) {
+            kingSafety = new KingSafetyAnalyzer(this);
+        }
+        return kingSafety;
+    }
+
+    /**
+     * @return attacker counts of both colors, computed on first use
+     */
+    public AttackMap getAttackMap() {
+        if (attackMap == null) {
+            attackMap = new AttackMap(board);
+        }
+        return attackMap;
+    }
+
     public ExecutableMoveGenerator getGenerator() {
         return new ExecutableMoveGenerator(this);
     }
@@ -0,0 +1,149 @@
+package chess.board;
+
+import chess.Position;
+import chess.board.lowlevel.Bitboards;
+import chess.board.lowlevel.Board;
+import chess.board.requirements.CastleRequirements;
+import chess.color.Color;
+
+/**
+ * Immutable compact copy of {@link ChessBoard} state for storing many positions: squares are kept as 4-bit
+ * piece codes in four longs, side to move, castle rights, en passant file and king squares in fifth one.
+ * Equal positions have equal packed boards, so it can be used directly as map key.
+ */
+public final class PackedChessBoard {
+    private static final byte[] IDS = {
+            Board.EMPTY,
+            Board.WPAWN, Board.WKNIGHT, Board.WBISHOP, Board.WROOK, Board.WQUEEN, Board.WKING,
+            Board.BPAWN, Board.BKNIGHT, Board.BBISHOP, Board.BROOK, Board.BQUEEN, Board.BKING
+    };
+    private static final byte[] CODES = new byte[Board.BKING + 1];
+    private static final int SQUARES_PER_WORD = 16;
+    private static final int CODE_BITS = 4;
+    private static final long CODE_MASK = (1L << CODE_BITS) - 1;
+    private static final int CASTLE_SHIFT = 1;
+    private static final int EN_PASSANT_SHIFT = 5;
+    private static final int WHITE_KING_SHIFT = 9;
+    private static final int BLACK_KING_SHIFT = 16;
+    private static final long KING_MASK = 0x7F;
+    private static final int NO_KING = Bitboards.SQUARES;
+
+    static {
+        for (byte code = 0; code < IDS.length; code++) {
+            CODES[IDS[code]] = code;
+        }
+    }
+
+    private final long squares0;
+    private final long squares1;
+    private final long squares2;
+    private final long squares3;
+    private final long state;
+
+    private PackedChessBoard(long[] squares, long state) {
+        this.squares0 = squares[0];
+        this.squares1 = squares[1];
+        this.squares2 = squares[2];
+        this.squares3 = squares[3];
+        this.state = state;
+    }
+
+    public static PackedChessBoard of(ChessBoard chessBoard) {
+        Board board = chessBoard.getBoard();
+        long[] squares = new long[4];
+        for (long occupancy = board.getOccupancy(); occupancy != 0; occupancy &= occupancy - 1) {
+            int square = Bitboards.firstSquare(occupancy);
+            squares[square / SQUARES_PER_WORD] |= (long) CODES[board.read(square)] << (square % SQUARES_PER_WORD * CODE_BITS);
+        }
+        long state = chessBoard.getColor().isBlack() ? 1 : 0;
+        state |= (long) chessBoard.getCastleRequirements().getMask() << CASTLE_SHIFT;
+        state |= (long) chessBoard.getEnPassantFile() << EN_PASSANT_SHIFT;
+        state |= (long) kingSquare(chessBoard.getKingPosition(Color.white)) << WHITE_KING_SHIFT;
+        state |= (long) kingSquare(chessBoard.getKingPosition(Color.black)) << BLACK_KING_SHIFT;
+        return new PackedChessBoard(squares, state);
+    }
+
+    private static int kingSquare(Position position) {
+        return position == null ? NO_KING : Bitboards.square(position);
+    }
+
+    /**
+     * @return board id of piece on square, {@link Board#EMPTY} if square is empty
+     */
+    public byte read(int square) {
+        long word = switch (square / SQUARES_PER_WORD) {
+            case 0 -> squares0;
+            case 1 -> squares1;
+            case 2 -> squares2;
+            default -> squares3;
+        };
+        return IDS[(int) (word >>> (square % SQUARES_PER_WORD * CODE_BITS) & CODE_MASK)];
+    }
+
+    public Color getColor() {
+        return (state & 1) == 0 ? Color.white : Color.black;
+    }
+
+    public int getCastleMask() {
+        return (int) (state >>> CASTLE_SHIFT & 0xF);
+    }
+
+    public int getEnPassantFile() {
+        return (int) (state >>> EN_PASSANT_SHIFT & 0xF);
+    }
+
+    /**
+     * @return square of king or -1 if there is no king of color
+     */
+    public int getKingSquare(Color color) {
+        int square = (int) (state >>> (color.isWhite() ? WHITE_KING_SHIFT : BLACK_KING_SHIFT) & KING_MASK);
+        return square == NO_KING ? -1 : square;
+    }
+
+    public ChessBoard toChessBoard() {
+        Board board = Board.getBlank();
+        for (int square = 0; square < Bitboards.SQUARES; square++) {
+            byte id = read(square);
+            if (id != Board.EMPTY) {
+                board.write(id, square);
+            }
+        }
+        return new ChessBoard(board,
+                getColor(),
+                CastleRequirements.fromMask(getCastleMask()),
+                getEnPassantFile(),
+                null,
+                kingPosition(Color.white),
+                kingPosition(Color.black));
+    }
+
+    private Position kingPosition(Color color) {
+        int square = getKingSquare(color);
+        return square < 0 ? null : Bitboards.position(square);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PackedChessBoard that)) {
+            return false;
+        }
+        return squares0 == that.squares0
+                && squares1 == that.squares1
+                && squares2 == that.squares2
+                && squares3 == that.squares3
+                && state == that.state;
+    }
+
+    @Override
+    public int hashCode() {
+        long hash = squares0;
+        hash = hash * 31 + squares1;
+        hash = hash * 31 + squares2;
+        hash = hash * 31 + squares3;
+        hash = hash * 31 + state;
+        return Long.hashCode(hash ^ hash >>> 29);
+    }
+}
@@ -0,0 +1,238 @@
+package chess.board;
+
+import chess.board.features.PackedMoveGenerator;
+import chess.board.lowlevel.Attacks;
+import chess.board.lowlevel.Bitboards;
+import chess.board.lowlevel.Board;
+import chess.board.lowlevel.Zobrist;
+import chess.board.requirements.CastleRequirements;
+import chess.color.Color;
+import chess.moves.packed.MoveList;
+import chess.moves.packed.PackedMove;
+import chess.moves.raw.RawMove;
+import chess.moves.valid.executable.ExecutableMove;
+import chess.pieces.Piece;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Mutable counterpart of {@link ChessBoard} used by perft, bulk validation and search.
+ * Moves are applied in place by {@link #doMove(int)} and reverted by {@link #undoMove()},
+ * so walking a tree of moves does not allocate a new board on every ply.
+ */
+public class SearchBoard {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int[] CASTLE_RIGHTS_LOST_ON_SQUARE = new int[Bitboards.SQUARES];
+
+    static {
+        CASTLE_RIGHTS_LOST_ON_SQUARE[Bitboards.square(5, 1)] = CastleRequirements.WHITE_SHORT | CastleRequirements.WHITE_LONG;
+        CASTLE_RIGHTS_LOST_ON_SQUARE[Bitboards.square(8, 1)] = CastleRequirements.WHITE_SHORT;
+        CASTLE_RIGHTS_LOST_ON_SQUARE[Bitboards.square(1, 1)] = CastleRequirements.WHITE_LONG;
+        CASTLE_RIGHTS_LOST_ON_SQUARE[Bitboards.square(5, 8)] = CastleRequirements.BLACK_SHORT | CastleRequirements.BLACK_LONG;
+        CASTLE_RIGHTS_LOST_ON_SQUARE[Bitboards.square(8, 8)] = CastleRequirements.BLACK_SHORT;
+        CASTLE_RIGHTS_LOST_ON_SQUARE[Bitboards.square(1, 8)] = CastleRequirements.BLACK_LONG;
+    }
+
+    private final Board board;
+    private final int initialEnPassantFile;
+    private final RawMove initialLastMove;
+    private Color color;
+    private int castleMask;
+    private int ply = 0;
+    private int[] moves = new int[INITIAL_CAPACITY];
+    private byte[] captures = new byte[INITIAL_CAPACITY];
+    private int[] castleMasks = new int[INITIAL_CAPACITY];
+
+    public SearchBoard(ChessBoard chessBoard) {
+        board = Board.getCopy(chessBoard.getBoard());
+        color = chessBoard.getColor();
+        castleMask = chessBoard.getCastleRequirements().getMask();
+        initialEnPassantFile = chessBoard.getEnPassantFile();
+        initialLastMove = chessBoard.getLastMove().orElse(null);
+    }
+
+    public void doMove(ExecutableMove move) {
+        doMove(PackedMove.of(move));
+    }
+
+    /**
+     * @param move legal move encoded as {@link PackedMove}
+     */
+    public void doMove(int move) {
+        ensureCapacity();
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        byte captured;
+        switch (PackedMove.flag(move)) {
+            case PackedMove.CASTLE -> {
+                captured = relocate(from, to);
+                int rookMove = PackedMove.castleRookMove(move);
+                relocate(PackedMove.from(rookMove), PackedMove.to(rookMove));
+            }
+            case PackedMove.EN_PASSANT -> {
+                captured = relocate(from, to);
+                board.write(Board.EMPTY, enPassantCapturedSquare(from, to));
+            }
+            case PackedMove.PROMOTION -> {
+                captured = board.read(to);
+                board.write(Board.getId(PackedMove.promotionType(move), color), to);
+                board.write(Board.EMPTY, from);
+            }
+            default -> captured = relocate(from, to);
+        }
+
+        moves[ply] = move;
+        captures[ply] = captured;
+        castleMasks[ply] = castleMask;
+        ply++;
+        castleMask &= ~(CASTLE_RIGHTS_LOST_ON_SQUARE[from] | CASTLE_RIGHTS_LOST_ON_SQUARE[to]);
+        color = color.swap();
+    }
+
+    public void undoMove() {
+        if (ply == 0) {
+            throw new IllegalStateException("No move to undo");
+        }
+        ply--;
+        color = color.swap();
+        int move = moves[ply];
+        castleMask = castleMasks[ply];
+        byte captured = captures[ply];
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+
+        switch (PackedMove.flag(move)) {
+            case PackedMove.CASTLE -> {
+                relocate(to, from);
+                int rookMove = PackedMove.castleRookMove(move);
+                relocate(PackedMove.to(rookMove), PackedMove.from(rookMove));
+            }
+            case PackedMove.EN_PASSANT -> {
+                relocate(to, from);
+                board.write(Board.getId(Piece.Type.PAWN, color.swap()), enPassantCapturedSquare(from, to));
+            }
+            case PackedMove.PROMOTION -> {
+                board.write(Board.getId(Piece.Type.PAWN, color), from);
+                board.write(captured, to);
+            }
+            default -> {
+                relocate(to, from);
+                board.write(captured, to);
+            }
+        }
+    }
+
+    private static int enPassantCapturedSquare(int from, int to) {
+        return Bitboards.square(Bitboards.file(to), Bitboards.rank(from));
+    }
+
+    /**
+     * @return captured piece id or {@link Board#EMPTY}
+     */
+    private byte relocate(int from, int to) {
+        byte captured = board.read(to);
+        board.write(board.read(from), to);
+        board.write(Board.EMPTY, from);
+        return captured;
+    }
+
+    private void ensureCapacity() {
+        if (ply == moves.length) {
+            moves = Arrays.copyOf(moves, ply * 2);
+            captures = Arrays.copyOf(captures, ply * 2);
+            castleMasks = Arrays.copyOf(castleMasks, ply * 2);
+        }
+    }
+
+    /**
+     * Moves generated from this board share its state, so they must be played through
+     * {@link #doMove(ExecutableMove)} and not executed on their own.
+     */
+    public List<ExecutableMove> getAllPossibleExecutableMoves() {
+        return asChessBoard().getGenerator().getAllPossibleExecutableMoves();
+    }
+
+    /**
+     * Appends all legal moves encoded as {@link PackedMove} to given list, without allocating.
+     */
+    public void getAllPossibleMoves(MoveList moveList) {
+        PackedMoveGenerator.generate(board, color, castleMask, getEnPassantFile(), moveList);
+    }
+
+    /**
+     * @return Zobrist key of current position, equal to {@link ChessBoard#zobrist()} of the same position
+     */
+    public long zobrist() {
+        int enPassantFile = getEnPassantFile();
+        if (enPassantFile != 0 && !Attacks.canCaptureEnPassant(board, color, enPassantFile)) {
+            enPassantFile = 0;
+        }
+        return Zobrist.key(board, color, castleMask, enPassantFile);
+    }
+
+    /**
+     * @return file of pawn which made double step in last move or 0
+     */
+    public int getEnPassantFile() {
+        if (ply == 0) {
+            return initialEnPassantFile;
+        }
+        int lastMove = moves[ply - 1];
+        int to = PackedMove.to(lastMove);
+        if (Math.abs(Bitboards.rank(to) - Bitboards.rank(PackedMove.from(lastMove))) == 2
+                && board.read(to) == Board.getId(Piece.Type.PAWN, color.swap())) {
+            return Bitboards.file(to);
+        }
+        return 0;
+    }
+
+    /**
+     * @return immutable board sharing state with this search board, valid until next doMove or undoMove
+     */
+    public ChessBoard asChessBoard() {
+        return createChessBoard(board);
+    }
+
+    /**
+     * @return independent immutable copy of current position
+     */
+    public ChessBoard toChessBoard() {
+        return createChessBoard(Board.getCopy(board));
+    }
+
+    private ChessBoard createChessBoard(Board board) {
+        return new ChessBoard(
+                board,
+                color,
+                CastleRequirements.fromMask(castleMask),
+                getEnPassantFile(),
+                getLastMove().orElse(null),
+                board.findKing(Color.white),
+                board.findKing(Color.black));
+    }
+
+    public Optional<RawMove> getLastMove() {
+        if (ply == 0) {
+            return Optional.ofNullable(initialLastMove);
+        }
+        return Optional.of(PackedMove.toRawMove(moves[ply - 1]));
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public Color getColor() {
+        return color;
+    }
+
+    public CastleRequirements getCastleRequirements() {
+        return CastleRequirements.fromMask(castleMask);
+    }
+
+    public int getPly() {
+        return ply;
+    }
+}
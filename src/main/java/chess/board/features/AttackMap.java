@@ -0,0 +1,64 @@
+package chess.board.features;
+
+import chess.Position;
+import chess.board.lowlevel.Attacks;
+import chess.board.lowlevel.Bitboards;
+import chess.board.lowlevel.Board;
+import chess.color.Color;
+import chess.pieces.Piece;
+
+/**
+ * Number of pieces of each color attacking every square, computed once per position from bitboards.
+ * Squares occupied by own pieces count as attacked, so the counts describe defence as well.
+ */
+public class AttackMap {
+    private final int[] whiteCounts = new int[Bitboards.SQUARES];
+    private final int[] blackCounts = new int[Bitboards.SQUARES];
+    private final long whiteAttacked;
+    private final long blackAttacked;
+
+    public AttackMap(Board board) {
+        whiteAttacked = count(board, Color.white, whiteCounts);
+        blackAttacked = count(board, Color.black, blackCounts);
+    }
+
+    private static long count(Board board, Color color, int[] counts) {
+        long occupancy = board.getOccupancy();
+        long attacked = 0;
+        for (long pieces = board.getOccupancy(color); pieces != 0; pieces &= pieces - 1) {
+            int square = Bitboards.firstSquare(pieces);
+            long attacks = attacks(Board.getType(board.read(square)), color, square, occupancy);
+            attacked |= attacks;
+            for (; attacks != 0; attacks &= attacks - 1) {
+                counts[Bitboards.firstSquare(attacks)]++;
+            }
+        }
+        return attacked;
+    }
+
+    private static long attacks(Piece.Type type, Color color, int square, long occupancy) {
+        return switch (type) {
+            case PAWN -> Attacks.pawn(square, color);
+            case KNIGHT -> Attacks.knight(square);
+            case BISHOP -> Attacks.bishop(square, occupancy);
+            case ROOK -> Attacks.rook(square, occupancy);
+            case QUEEN -> Attacks.queen(square, occupancy);
+            case KING -> Attacks.king(square);
+        };
+    }
+
+    public int getAttackerCount(Color color, int square) {
+        return color.isWhite() ? whiteCounts[square] : blackCounts[square];
+    }
+
+    public int getAttackerCount(Color color, Position position) {
+        return getAttackerCount(color, Bitboards.square(position));
+    }
+
+    /**
+     * @return bitboard of squares attacked by at least one piece of color
+     */
+    public long getAttacked(Color color) {
+        return color.isWhite() ? whiteAttacked : blackAttacked;
+    }
+}
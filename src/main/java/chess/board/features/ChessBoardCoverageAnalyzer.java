@@ -21,11 +21,10 @@ public class ChessBoardCoverageAnalyzer {
     }
 
     public Map<Position, Coverage> getBoardCoverage(Color color) {
-        Map<Position, Long> colorAttacking = chessBoard.getUtility().getNumberOfPiecesAttackingFields(color);
-        Map<Position, Long> oppositeColorAttacking = chessBoard.getUtility().getNumberOfPiecesAttackingFields(color.swap());
+        AttackMap attackMap = chessBoard.getAttackMap();
         Map<Position, Coverage> result = new HashMap<>();
         chessBoard.getUtility().getAllPositions().forEach(position -> {
-            long difference = colorAttacking.get(position) - oppositeColorAttacking.get(position);
+            int difference = attackMap.getAttackerCount(color, position) - attackMap.getAttackerCount(color.swap(), position);
             Coverage temp;
             if (difference > 0) {
                 temp = Coverage.STRONG;
@@ -2,39 +2,53 @@ package chess.board.features;
 
 import chess.Position;
 import chess.board.ChessBoard;
+import chess.board.lowlevel.Attacks;
+import chess.board.lowlevel.Bitboards;
+import chess.board.lowlevel.Board;
 import chess.color.Color;
-import chess.board.fields.Field;
 import chess.pieces.*;
 
 import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 public class ChessBoardUtility {
     private final ChessBoard chessBoard;
+    private List<Piece> whitePieces;
+    private List<Piece> blackPieces;
 
     public ChessBoardUtility(ChessBoard chessBoard) {
         this.chessBoard = chessBoard;
     }
 
     public Map<Position, Long> getNumberOfPiecesAttackingFields(Color color) {
-        Map<Position, Long> result = getPiecesOfColor(color).stream()
-                .map(piece -> piece.getAttackedPositions(chessBoard))
-                .flatMap(Set::stream)
-                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
-
-        getAllPositions().forEach(position -> result.merge(position, 0L, (v1, v2) -> v1));
-
+        AttackMap attackMap = chessBoard.getAttackMap();
+        Map<Position, Long> result = new HashMap<>();
+        getAllPositions().forEach(position -> result.put(position, (long) attackMap.getAttackerCount(color, position)));
         return result;
     }
 
+    /**
+     * @return pieces of color, found from color occupancy of board and cached for this position
+     */
     public List<Piece> getPiecesOfColor(Color color) {
-        return getAllPositions().stream()
-                .map(chessBoard::getField)
-                .filter(Field::hasPiece)
-                .map(Field::getPiece)
-                .filter(piece -> piece.getColor().equal(color))
-                .toList();
+        if (color.isWhite()) {
+            if (whitePieces == null) {
+                whitePieces = findPieces(color);
+            }
+            return whitePieces;
+        }
+        if (blackPieces == null) {
+            blackPieces = findPieces(color);
+        }
+        return blackPieces;
+    }
+
+    private List<Piece> findPieces(Color color) {
+        long occupancy = chessBoard.getBoard().getOccupancy(color);
+        List<Piece> result = new ArrayList<>(Long.bitCount(occupancy));
+        for (; occupancy != 0; occupancy &= occupancy - 1) {
+            result.add(chessBoard.getField(Bitboards.position(Bitboards.firstSquare(occupancy))).getPiece());
+        }
+        return Collections.unmodifiableList(result);
     }
 
     public List<Position> getAllPositions() {
@@ -48,45 +62,7 @@ public class ChessBoardUtility {
     }
 
     public boolean isPositionAttacked(Position position, Color attackingColor) {
-        for (Position step : Steps.fullSteps) {
-            if (isAttackedFromDirection(position, step, attackingColor)) {
-                return true;
-            }
-        }
-        for (Position step : Steps.knightSteps) {
-            if (isAttackedByKnight(position, step, attackingColor)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private boolean isAttackedFromDirection(Position position, Position direction, Color attackingColor) {
-        Position temporaryPosition = position.add(direction);
-        while (temporaryPosition.isOnBoard()) {
-            Field field = chessBoard.getField(temporaryPosition);
-            if (field.hasPiece()) {
-                Piece piece = field.getPiece();
-                if (!piece.getColor().equal(attackingColor)) {
-                    return false;
-                }
-                return piece.getAttackedPositions(chessBoard).contains(position);
-            }
-            temporaryPosition = temporaryPosition.add(direction);
-        }
-        return false;
-    }
-
-    private boolean isAttackedByKnight(Position position, Position step, Color attackingColor) {
-        Position temporaryPosition = position.add(step);
-        if (!temporaryPosition.isOnBoard()) {
-            return false;
-        }
-        Field field = chessBoard.getField(position.add(step));
-        if (!field.hasPiece()) {
-            return false;
-        }
-        Piece piece = field.getPiece();
-        return piece instanceof Knight && piece.getColor().equal(attackingColor);
+        Board board = chessBoard.getBoard();
+        return Attacks.attackersOf(board, Bitboards.square(position), board.getOccupancy(), attackingColor) != 0;
     }
 }
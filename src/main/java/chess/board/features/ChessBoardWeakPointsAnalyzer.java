@@ -2,13 +2,10 @@ package chess.board.features;
 
 import chess.Position;
 import chess.board.ChessBoard;
+import chess.board.lowlevel.Bitboards;
 import chess.color.Color;
-import chess.board.fields.Field;
-import chess.pieces.Piece;
 
-import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 public class ChessBoardWeakPointsAnalyzer {
     private final ChessBoard board;
@@ -17,18 +14,11 @@ public class ChessBoardWeakPointsAnalyzer {
         this.board = board;
     }
 
+    /**
+     * @return positions of pieces of color not defended by any other piece of color
+     */
     public Set<Position> getWeakPoints(Color color) {
-        return board.getUtility()
-                .getNumberOfPiecesAttackingFields(color)
-                .entrySet()
-                .stream()
-                .filter(entry -> entry.getValue() == 0)
-                .map(Map.Entry::getKey)
-                .map(board::getField)
-                .filter(Field::hasPiece)
-                .map(Field::getPiece)
-                .filter(piece -> piece.getColor().equal(color))
-                .map(Piece::getPosition)
-                .collect(Collectors.toSet());
+        long undefended = board.getBoard().getOccupancy(color) & ~board.getAttackMap().getAttacked(color);
+        return Bitboards.toPositions(undefended);
     }
 }
@@ -1,114 +1,185 @@
 package chess.board.features;
 
-import chess.Position;
 import chess.board.ChessBoard;
+import chess.board.lowlevel.Attacks;
+import chess.board.lowlevel.Bitboards;
+import chess.board.lowlevel.Board;
 import chess.color.Color;
-import chess.moves.raw.RawMove;
-import chess.moves.valid.UnTypedPromotion;
-import chess.moves.valid.executable.*;
-import chess.pieces.Pawn;
+import chess.moves.packed.MoveList;
+import chess.moves.packed.PackedMove;
+import chess.moves.valid.executable.ExecutableMove;
 import chess.pieces.Piece;
-import chess.validation.ValidMoveFactory;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Stream;
 
 public class ExecutableMoveGenerator {
-    private final Color color;
-    private final ChessBoardUtility utility;
-    private final ValidMoveFactory validMoveFactory;
+    public static final int NO_MOVE = -1;
+    private static final long RANK_1 = 0xFFL;
+    private static final long RANK_8 = 0xFFL << 56;
     private final ChessBoard chessBoard;
 
     public ExecutableMoveGenerator(ChessBoard chessBoard) {
         this.chessBoard = chessBoard;
-        this.color = chessBoard.getColor();
-        utility = new ChessBoardUtility(chessBoard);
-        validMoveFactory = new ValidMoveFactory(chessBoard);
     }
 
     public List<ExecutableMove> getAllPossibleExecutableMoves() {
-        List<Piece> pieces = utility.getPiecesOfColor(color);
-        return Stream.concat(
-                Stream.concat(
-                        Stream.concat(
-                                getAllPossibleSimpleMoves(pieces).stream(),
-                                getAllPossibleCastles().stream()
-                        ),
-                        getAllPossibleEnPassantCaptures(pieces).stream()
-                ),
-                getAllPossiblePromotions(pieces).stream()
-        ).toList();
+        MoveList moves = new MoveList();
+        getAllPossibleMoves(moves);
+        List<ExecutableMove> result = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            result.add(PackedMove.toExecutableMove(moves.get(i), chessBoard));
+        }
+        return result;
+    }
+
+    /**
+     * Appends all legal moves encoded as {@link PackedMove} to given list.
+     */
+    public void getAllPossibleMoves(MoveList moves) {
+        PackedMoveGenerator.generate(
+                chessBoard.getBoard(),
+                chessBoard.getColor(),
+                chessBoard.getCastleRequirements().getMask(),
+                chessBoard.getEnPassantFile(),
+                moves);
     }
 
-    private List<SimpleMove> getAllPossibleSimpleMoves(List<Piece> pieces) {
-        return pieces.stream()
-                .flatMap(piece -> piece.getPossibleEndPositions(chessBoard).stream()
-                        .map(position -> RawMove.of(piece.getPosition(), position)))
-                .map(validMoveFactory::createValidMove)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .filter(object -> object instanceof SimpleMove)
-                .map(object -> (SimpleMove) object)
-                .toList();
+    /**
+     * @return legal moves encoded as {@link PackedMove} from shared {@link LegalMoveCache}, array must not be modified
+     */
+    public int[] getLegalMoves() {
+        return LegalMoveCache.getInstance().get(chessBoard);
     }
 
-    private List<Castle> getAllPossibleCastles() {
-        List<RawMove> legalCastleRawMoves = List.of(
-                RawMove.of(Position.of(5, 8), Position.of(7, 8)),
-                RawMove.of(Position.of(5, 8), Position.of(3, 8)),
-                RawMove.of(Position.of(5, 1), Position.of(7, 1)),
-                RawMove.of(Position.of(5, 1), Position.of(3, 1))
-        );
-        return legalCastleRawMoves.stream()
-                .map(validMoveFactory::createValidMove)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .filter(object -> object instanceof Castle)
-                .map(object -> (Castle) object)
-                .toList();
+    /**
+     * @return legal moves encoded as {@link PackedMove}, generated without {@link LegalMoveCache}
+     */
+    public int[] generateLegalMoves() {
+        MoveList moves = new MoveList();
+        getAllPossibleMoves(moves);
+        return moves.toArray();
     }
 
-    private List<EnPassantCapture> getAllPossibleEnPassantCaptures(List<Piece> pieces) {
-        return pieces.stream()
-                .filter(piece -> piece instanceof Pawn)
-                .map(piece -> (Pawn) piece)
-                .flatMap(pawn -> pawn.getAttackedPositions(chessBoard).stream().map(position -> RawMove.of(pawn.getPosition(), position)))
-                .map(validMoveFactory::createValidMove)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .filter(object -> object instanceof EnPassantCapture)
-                .map(object -> (EnPassantCapture) object)
-                .toList();
+    /**
+     * Checks single move against attack or push set of moving piece and against check and pin masks of
+     * {@link KingSafetyAnalyzer}, without generating other moves of position.
+     *
+     * @return legal move between squares encoded as {@link PackedMove}, promotion is returned with queen type,
+     * or {@link #NO_MOVE} when move is not legal
+     */
+    public int findLegalMove(int from, int to) {
+        Board board = chessBoard.getBoard();
+        Color color = chessBoard.getColor();
+        long own = board.getOccupancy(color);
+        if ((own & Bitboards.bit(from)) == 0 || (own & Bitboards.bit(to)) != 0) {
+            return NO_MOVE;
+        }
+        KingSafetyAnalyzer kingSafety = chessBoard.getKingSafety();
+        long occupancy = board.getOccupancy();
+        long destination = Bitboards.bit(to);
+        Piece.Type type = Board.getType(board.read(from));
+        if (type == Piece.Type.KING && Bitboards.rank(from) == Bitboards.rank(to)
+                && Math.abs(Bitboards.file(from) - Bitboards.file(to)) == 2) {
+            return !kingSafety.isKingChecked() && (castleTargets(from, occupancy) & destination) != 0
+                    ? PackedMove.of(from, to, PackedMove.CASTLE)
+                    : NO_MOVE;
+        }
+        if (type == Piece.Type.PAWN && isEnPassantCapture(from, to, occupancy)) {
+            return kingSafety.isKingSafeAfterEnPassantCapture(from, to)
+                    ? PackedMove.of(from, to, PackedMove.EN_PASSANT)
+                    : NO_MOVE;
+        }
+        long targets = switch (type) {
+            case PAWN -> pawnTargets(from, color, occupancy, board.getOccupancy(color.swap()));
+            case KNIGHT -> Attacks.knight(from);
+            case BISHOP -> Attacks.bishop(from, occupancy);
+            case ROOK -> Attacks.rook(from, occupancy);
+            case QUEEN -> Attacks.queen(from, occupancy);
+            case KING -> Attacks.king(from);
+        };
+        if ((targets & destination) == 0 || !kingSafety.isKingSafeAfterMove(from, to)) {
+            return NO_MOVE;
+        }
+        if (type == Piece.Type.PAWN && (destination & (RANK_1 | RANK_8)) != 0) {
+            return PackedMove.promotion(from, to, Piece.Type.QUEEN);
+        }
+        return PackedMove.of(from, to, PackedMove.NORMAL);
     }
 
-    private List<Promotion> getAllPossiblePromotions(List<Piece> pieces) {
-        return pieces.stream()
-                .filter(piece -> piece instanceof Pawn)
-                .map(piece -> (Pawn) piece)
-                .filter(this::isOnPenultimateLine)
-                .flatMap(pawn -> pawn.getPossibleEndPositions(chessBoard).stream()
-                        .map(position -> RawMove.of(pawn.getPosition(), position)))
-                .map(validMoveFactory::createValidMove)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .filter(object -> object instanceof UnTypedPromotion)
-                .map(object -> (UnTypedPromotion) object)
-                .flatMap(this::typePromotion)
-                .toList();
+    private long castleTargets(int kingSquare, long occupancy) {
+        MoveList castles = new MoveList();
+        PackedMoveGenerator.generateCastles(chessBoard.getBoard(), chessBoard.getColor(),
+                chessBoard.getCastleRequirements().getMask(), kingSquare, occupancy, castles);
+        long result = 0;
+        for (int i = 0; i < castles.size(); i++) {
+            result |= Bitboards.bit(PackedMove.to(castles.get(i)));
+        }
+        return result;
+    }
 
+    private boolean isEnPassantCapture(int from, int to, long occupancy) {
+        int file = chessBoard.getEnPassantFile();
+        Color color = chessBoard.getColor();
+        return file != 0
+                && to == Bitboards.square(file, color.isWhite() ? 6 : 3)
+                && (Attacks.pawn(from, color) & Bitboards.bit(to)) != 0
+                && (occupancy & Bitboards.bit(to)) == 0
+                && chessBoard.getBoard().read(Bitboards.square(file, color.isWhite() ? 5 : 4)) == Board.getId(Piece.Type.PAWN, color.swap());
     }
 
-    private boolean isOnPenultimateLine(Pawn pawn) {
-        if (pawn.getColor().isWhite()) {
-            return pawn.getPosition().getY() == 7;
-        } else {
-            return pawn.getPosition().getY() == 2;
+    private static long pawnTargets(int from, Color color, long occupancy, long enemyOccupancy) {
+        int forward = color.isWhite() ? Board.SIZE : -Board.SIZE;
+        long lastRank = color.isWhite() ? RANK_8 : RANK_1;
+        if ((Bitboards.bit(from) & lastRank) != 0) {
+            return 0;
         }
+        long result = Attacks.pawn(from, color) & enemyOccupancy;
+        long front = Bitboards.bit(from + forward);
+        if ((occupancy & front) == 0) {
+            result |= front;
+            if (Bitboards.rank(from) == (color.isWhite() ? 2 : 7) && (occupancy & Bitboards.bit(from + 2 * forward)) == 0) {
+                result |= Bitboards.bit(from + 2 * forward);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return legal moves generated lazily, captures and promotions first
+     */
+    public StagedMoveIterator getStagedMoves() {
+        return new StagedMoveIterator(chessBoard);
+    }
+
+    public Iterator<ExecutableMove> getExecutableMoveIterator() {
+        StagedMoveIterator moves = getStagedMoves();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return moves.hasNext();
+            }
+
+            @Override
+            public ExecutableMove next() {
+                return PackedMove.toExecutableMove(moves.nextInt(), chessBoard);
+            }
+        };
+    }
+
+    /**
+     * Stops on first legal move found.
+     */
+    public boolean hasLegalMove() {
+        return getStagedMoves().hasNext();
+    }
+
+    public boolean isCheckmate() {
+        return chessBoard.getKingSafety().isKingChecked() && !hasLegalMove();
     }
 
-    private Stream<Promotion> typePromotion(UnTypedPromotion promotion) {
-        List<Piece.Type> types = List.of(Piece.Type.KNIGHT, Piece.Type.BISHOP, Piece.Type.ROOK, Piece.Type.QUEEN);
-        return types.stream().map(promotion::type);
+    public boolean isStalemate() {
+        return !chessBoard.getKingSafety().isKingChecked() && !hasLegalMove();
     }
 }
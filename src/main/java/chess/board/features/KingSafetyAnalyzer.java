@@ -0,0 +1,110 @@
+package chess.board.features;
+
+import chess.Position;
+import chess.board.ChessBoard;
+import chess.board.lowlevel.Attacks;
+import chess.board.lowlevel.Bitboards;
+import chess.board.lowlevel.Board;
+import chess.color.Color;
+import chess.pieces.Piece;
+
+/**
+ * Checkers, check mask and pins of king of side to move, computed once per position.
+ * Used to filter pseudo-legal moves without executing them on a board copy.
+ */
+public class KingSafetyAnalyzer {
+    private static final long ALL_SQUARES = ~0L;
+    private final Board board;
+    private final Color color;
+    private final int kingSquare;
+    private final long occupancy;
+    private final long checkers;
+    private final long checkMask;
+    private final long pinned;
+    private final long[] pinRays;
+
+    public KingSafetyAnalyzer(ChessBoard chessBoard) {
+        board = chessBoard.getBoard();
+        color = chessBoard.getColor();
+        occupancy = board.getOccupancy();
+        Position kingPosition = chessBoard.getKingPosition(color);
+        if (kingPosition == null) {
+            kingSquare = -1;
+            checkers = 0;
+            checkMask = ALL_SQUARES;
+            pinned = 0;
+            pinRays = null;
+            return;
+        }
+        kingSquare = Bitboards.square(kingPosition);
+        checkers = Attacks.attackersOf(board, kingSquare, occupancy, color.swap());
+        if (checkers == 0) {
+            checkMask = ALL_SQUARES;
+        } else if (Long.bitCount(checkers) == 1) {
+            checkMask = checkers | Attacks.between(kingSquare, Bitboards.firstSquare(checkers));
+        } else {
+            checkMask = 0;
+        }
+
+        Color enemy = color.swap();
+        long enemyOccupancy = board.getOccupancy(enemy);
+        long enemyQueens = board.getPieces(Board.getId(Piece.Type.QUEEN, enemy));
+        long snipers = (Attacks.rook(kingSquare, enemyOccupancy) & (board.getPieces(Board.getId(Piece.Type.ROOK, enemy)) | enemyQueens))
+                | (Attacks.bishop(kingSquare, enemyOccupancy) & (board.getPieces(Board.getId(Piece.Type.BISHOP, enemy)) | enemyQueens));
+        long pinnedPieces = 0;
+        long[] rays = null;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            int sniper = Bitboards.firstSquare(snipers);
+            long blockers = Attacks.between(kingSquare, sniper) & occupancy;
+            if (Long.bitCount(blockers) == 1 && (blockers & board.getOccupancy(color)) != 0) {
+                if (rays == null) {
+                    rays = new long[Bitboards.SQUARES];
+                }
+                pinnedPieces |= blockers;
+                rays[Bitboards.firstSquare(blockers)] = Attacks.line(kingSquare, sniper);
+            }
+        }
+        pinned = pinnedPieces;
+        pinRays = rays;
+    }
+
+    public boolean isKingChecked() {
+        return checkers != 0;
+    }
+
+    /**
+     * Checks if king of side to move is safe after ordinary move or promotion, move is expected to be pseudo-legal.
+     */
+    public boolean isKingSafeAfterMove(Position start, Position end) {
+        return isKingSafeAfterMove(Bitboards.square(start), Bitboards.square(end));
+    }
+
+    public boolean isKingSafeAfterMove(int from, int to) {
+        if (kingSquare < 0) {
+            return true;
+        }
+        if (from == kingSquare) {
+            return Attacks.attackersOf(board, to, occupancy ^ Bitboards.bit(from), color.swap()) == 0;
+        }
+        if ((checkMask & Bitboards.bit(to)) == 0) {
+            return false;
+        }
+        return (pinned & Bitboards.bit(from)) == 0 || (pinRays[from] & Bitboards.bit(to)) != 0;
+    }
+
+    /**
+     * En passant removes two pieces from one rank, so it is checked against resulting occupancy instead of pins.
+     */
+    public boolean isKingSafeAfterEnPassantCapture(Position start, Position end) {
+        return isKingSafeAfterEnPassantCapture(Bitboards.square(start), Bitboards.square(end));
+    }
+
+    public boolean isKingSafeAfterEnPassantCapture(int from, int to) {
+        if (kingSquare < 0) {
+            return true;
+        }
+        long captured = Bitboards.bit(Bitboards.square(Bitboards.file(to), Bitboards.rank(from)));
+        long nextOccupancy = (occupancy ^ Bitboards.bit(from) ^ captured) | Bitboards.bit(to);
+        return (Attacks.attackersOf(board, kingSquare, nextOccupancy, color.swap()) & ~captured) == 0;
+    }
+}
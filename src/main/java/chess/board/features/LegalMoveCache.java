@@ -0,0 +1,94 @@
+package chess.board.features;
+
+import chess.board.ChessBoard;
+import chess.moves.packed.MoveList;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of legal moves keyed by {@link ChessBoard#zobrist()}, shared by GUI and command line.
+ * Least recently used position is evicted when cache is full. Moves are stored as packed ints.
+ */
+public class LegalMoveCache {
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final LegalMoveCache cache = new LegalMoveCache(DEFAULT_CAPACITY);
+    private final Map<Long, int[]> moves;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public static LegalMoveCache getInstance() {
+        return cache;
+    }
+
+    public LegalMoveCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+        }
+        moves = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @return legal moves of position, array must not be modified
+     */
+    public int[] get(ChessBoard chessBoard) {
+        long key = chessBoard.zobrist();
+        int[] result;
+        synchronized (moves) {
+            result = moves.get(key);
+        }
+        if (result != null) {
+            hits.increment();
+            return result;
+        }
+        misses.increment();
+        MoveList moveList = new MoveList();
+        chessBoard.getGenerator().getAllPossibleMoves(moveList);
+        result = moveList.toArray();
+        synchronized (moves) {
+            moves.put(key, result);
+        }
+        return result;
+    }
+
+    public int size() {
+        synchronized (moves) {
+            return moves.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (moves) {
+            moves.clear();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = getHits();
+        long probeCount = hitCount + getMisses();
+        if (probeCount == 0) {
+            return 0;
+        }
+        return (double) hitCount / probeCount;
+    }
+
+    @Override
+    public String toString() {
+        return "Legal move cache: " + size() + " positions, " + getHits() + " hits, " + getMisses() + " misses ("
+                + Math.round(getHitRate() * 100) + "%)";
+    }
+}
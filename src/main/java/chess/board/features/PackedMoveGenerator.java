@@ -0,0 +1,198 @@
+package chess.board.features;
+
+import chess.board.lowlevel.Attacks;
+import chess.board.lowlevel.Bitboards;
+import chess.board.lowlevel.Board;
+import chess.board.requirements.CastleRequirements;
+import chess.color.Color;
+import chess.moves.packed.MoveList;
+import chess.moves.packed.PackedMove;
+import chess.pieces.Piece;
+
+/**
+ * Legal move generator working directly on bitboards and writing packed moves to caller supplied list,
+ * so it does not allocate. Pins and checks are resolved with the same masks as in {@link KingSafetyAnalyzer}.
+ */
+public class PackedMoveGenerator {
+    private static final long ALL_SQUARES = ~0L;
+    private static final long RANK_1 = 0xFFL;
+    private static final long RANK_8 = 0xFFL << 56;
+    private static final Piece.Type[] PROMOTION_TYPES = {Piece.Type.KNIGHT, Piece.Type.BISHOP, Piece.Type.ROOK, Piece.Type.QUEEN};
+
+    private PackedMoveGenerator() {
+    }
+
+    /**
+     * @param castleMask    castle rights as in {@link CastleRequirements#getMask()}
+     * @param enPassantFile file of pawn which just made double step or 0
+     */
+    public static void generate(Board board, Color color, int castleMask, int enPassantFile, MoveList moves) {
+        Color enemy = color.swap();
+        long own = board.getOccupancy(color);
+        long occupancy = board.getOccupancy();
+        long kings = board.getPieces(Board.getId(Piece.Type.KING, color));
+        int kingSquare = kings == 0 ? -1 : Bitboards.firstSquare(kings);
+
+        long checkers = 0;
+        long checkMask = ALL_SQUARES;
+        long pinned = 0;
+        if (kingSquare >= 0) {
+            checkers = Attacks.attackersOf(board, kingSquare, occupancy, enemy);
+            if (checkers != 0) {
+                checkMask = Long.bitCount(checkers) == 1
+                        ? checkers | Attacks.between(kingSquare, Bitboards.firstSquare(checkers))
+                        : 0;
+            }
+            pinned = pinnedPieces(board, color, kingSquare, own, occupancy);
+            generateKingMoves(board, enemy, kingSquare, own, occupancy, moves);
+        }
+        if (Long.bitCount(checkers) > 1) {
+            return;
+        }
+        if (checkers == 0 && kingSquare >= 0) {
+            generateCastles(board, color, castleMask, kingSquare, occupancy, moves);
+        }
+
+        long targets = ~own & checkMask;
+        long knights = board.getPieces(Board.getId(Piece.Type.KNIGHT, color)) & ~pinned;
+        for (; knights != 0; knights &= knights - 1) {
+            int from = Bitboards.firstSquare(knights);
+            addMoves(from, Attacks.knight(from) & targets, moves);
+        }
+        long queens = board.getPieces(Board.getId(Piece.Type.QUEEN, color));
+        long diagonal = board.getPieces(Board.getId(Piece.Type.BISHOP, color)) | queens;
+        for (; diagonal != 0; diagonal &= diagonal - 1) {
+            int from = Bitboards.firstSquare(diagonal);
+            addMoves(from, Attacks.bishop(from, occupancy) & targets & pinRay(pinned, kingSquare, from), moves);
+        }
+        long straight = board.getPieces(Board.getId(Piece.Type.ROOK, color)) | queens;
+        for (; straight != 0; straight &= straight - 1) {
+            int from = Bitboards.firstSquare(straight);
+            addMoves(from, Attacks.rook(from, occupancy) & targets & pinRay(pinned, kingSquare, from), moves);
+        }
+
+        generatePawnMoves(board, color, kingSquare, checkMask, pinned, occupancy, moves);
+        if (enPassantFile != 0) {
+            generateEnPassantCaptures(board, color, kingSquare, enPassantFile, occupancy, moves);
+        }
+    }
+
+    private static long pinnedPieces(Board board, Color color, int kingSquare, long own, long occupancy) {
+        Color enemy = color.swap();
+        long enemyOccupancy = board.getOccupancy(enemy);
+        long enemyQueens = board.getPieces(Board.getId(Piece.Type.QUEEN, enemy));
+        long snipers = (Attacks.rook(kingSquare, enemyOccupancy) & (board.getPieces(Board.getId(Piece.Type.ROOK, enemy)) | enemyQueens))
+                | (Attacks.bishop(kingSquare, enemyOccupancy) & (board.getPieces(Board.getId(Piece.Type.BISHOP, enemy)) | enemyQueens));
+        long pinned = 0;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = Attacks.between(kingSquare, Bitboards.firstSquare(snipers)) & occupancy;
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & own;
+            }
+        }
+        return pinned;
+    }
+
+    /**
+     * @return squares pinned piece can move to, all squares if piece is not pinned
+     */
+    private static long pinRay(long pinned, int kingSquare, int from) {
+        if ((pinned & Bitboards.bit(from)) == 0) {
+            return ALL_SQUARES;
+        }
+        return Attacks.line(kingSquare, from);
+    }
+
+    private static void generateKingMoves(Board board, Color enemy, int kingSquare, long own, long occupancy, MoveList moves) {
+        long withoutKing = occupancy ^ Bitboards.bit(kingSquare);
+        for (long targets = Attacks.king(kingSquare) & ~own; targets != 0; targets &= targets - 1) {
+            int to = Bitboards.firstSquare(targets);
+            if (Attacks.attackersOf(board, to, withoutKing, enemy) == 0) {
+                moves.add(PackedMove.of(kingSquare, to, PackedMove.NORMAL));
+            }
+        }
+    }
+
+    static void generateCastles(Board board, Color color, int castleMask, int kingSquare, long occupancy, MoveList moves) {
+        int rank = color.isWhite() ? 1 : 8;
+        if (kingSquare != Bitboards.square(5, rank)) {
+            return;
+        }
+        int shortRight = color.isWhite() ? CastleRequirements.WHITE_SHORT : CastleRequirements.BLACK_SHORT;
+        int longRight = color.isWhite() ? CastleRequirements.WHITE_LONG : CastleRequirements.BLACK_LONG;
+        byte rook = Board.getId(Piece.Type.ROOK, color);
+        Color enemy = color.swap();
+        if ((castleMask & shortRight) != 0
+                && board.read(Bitboards.square(8, rank)) == rook
+                && (occupancy & (Bitboards.bit(Bitboards.square(6, rank)) | Bitboards.bit(Bitboards.square(7, rank)))) == 0
+                && Attacks.attackersOf(board, Bitboards.square(6, rank), occupancy, enemy) == 0
+                && Attacks.attackersOf(board, Bitboards.square(7, rank), occupancy, enemy) == 0) {
+            moves.add(PackedMove.of(kingSquare, Bitboards.square(7, rank), PackedMove.CASTLE));
+        }
+        if ((castleMask & longRight) != 0
+                && board.read(Bitboards.square(1, rank)) == rook
+                && (occupancy & (Bitboards.bit(Bitboards.square(2, rank)) | Bitboards.bit(Bitboards.square(3, rank)) | Bitboards.bit(Bitboards.square(4, rank)))) == 0
+                && Attacks.attackersOf(board, Bitboards.square(4, rank), occupancy, enemy) == 0
+                && Attacks.attackersOf(board, Bitboards.square(3, rank), occupancy, enemy) == 0) {
+            moves.add(PackedMove.of(kingSquare, Bitboards.square(3, rank), PackedMove.CASTLE));
+        }
+    }
+
+    private static void generatePawnMoves(Board board, Color color, int kingSquare, long checkMask, long pinned, long occupancy, MoveList moves) {
+        long enemyOccupancy = board.getOccupancy(color.swap());
+        int forward = color.isWhite() ? Board.SIZE : -Board.SIZE;
+        int startRank = color.isWhite() ? 2 : 7;
+        long lastRank = color.isWhite() ? RANK_8 : RANK_1;
+        for (long pawns = board.getPieces(Board.getId(Piece.Type.PAWN, color)); pawns != 0; pawns &= pawns - 1) {
+            int from = Bitboards.firstSquare(pawns);
+            if ((Bitboards.bit(from) & lastRank) != 0) {
+                continue;
+            }
+            long targets = Attacks.pawn(from, color) & enemyOccupancy;
+            long front = Bitboards.bit(from + forward);
+            if ((occupancy & front) == 0) {
+                targets |= front;
+                long far = Bitboards.bit(from + 2 * forward);
+                if (Bitboards.rank(from) == startRank && (occupancy & far) == 0) {
+                    targets |= far;
+                }
+            }
+            targets &= checkMask & pinRay(pinned, kingSquare, from);
+            for (; targets != 0; targets &= targets - 1) {
+                int to = Bitboards.firstSquare(targets);
+                if ((Bitboards.bit(to) & lastRank) != 0) {
+                    for (Piece.Type type : PROMOTION_TYPES) {
+                        moves.add(PackedMove.promotion(from, to, type));
+                    }
+                } else {
+                    moves.add(PackedMove.of(from, to, PackedMove.NORMAL));
+                }
+            }
+        }
+    }
+
+    private static void generateEnPassantCaptures(Board board, Color color, int kingSquare, int enPassantFile, long occupancy, MoveList moves) {
+        int to = Bitboards.square(enPassantFile, color.isWhite() ? 6 : 3);
+        long captured = Bitboards.bit(Bitboards.square(enPassantFile, color.isWhite() ? 5 : 4));
+        if ((board.getPieces(Board.getId(Piece.Type.PAWN, color.swap())) & captured) == 0 || (occupancy & Bitboards.bit(to)) != 0) {
+            return;
+        }
+        long pawns = Attacks.pawn(to, color.swap()) & board.getPieces(Board.getId(Piece.Type.PAWN, color));
+        for (; pawns != 0; pawns &= pawns - 1) {
+            int from = Bitboards.firstSquare(pawns);
+            if (kingSquare >= 0) {
+                long nextOccupancy = (occupancy ^ Bitboards.bit(from) ^ captured) | Bitboards.bit(to);
+                if ((Attacks.attackersOf(board, kingSquare, nextOccupancy, color.swap()) & ~captured) != 0) {
+                    continue;
+                }
+            }
+            moves.add(PackedMove.of(from, to, PackedMove.EN_PASSANT));
+        }
+    }
+
+    private static void addMoves(int from, long targets, MoveList moves) {
+        for (; targets != 0; targets &= targets - 1) {
+            moves.add(PackedMove.of(from, Bitboards.firstSquare(targets), PackedMove.NORMAL));
+        }
+    }
+}
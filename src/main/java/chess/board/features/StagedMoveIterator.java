@@ -0,0 +1,188 @@
+package chess.board.features;
+
+import chess.board.ChessBoard;
+import chess.board.lowlevel.Attacks;
+import chess.board.lowlevel.Bitboards;
+import chess.board.lowlevel.Board;
+import chess.color.Color;
+import chess.moves.packed.MoveList;
+import chess.moves.packed.PackedMove;
+import chess.pieces.Piece;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Lazily yields legal moves encoded as {@link PackedMove}. Moves are generated in stages: captures and promotions,
+ * then quiet moves, then castles. Each stage is generated only when previous one is exhausted
+ * and legality of pseudo-legal move is checked only when it is about to be returned.
+ */
+public class StagedMoveIterator implements PrimitiveIterator.OfInt {
+    private static final int NONE = -1;
+    private static final long RANK_1 = 0xFFL;
+    private static final long RANK_8 = 0xFFL << 56;
+    private static final Piece.Type[] PROMOTION_TYPES = {Piece.Type.QUEEN, Piece.Type.ROOK, Piece.Type.BISHOP, Piece.Type.KNIGHT};
+
+    private enum Stage {
+        CAPTURES,
+        QUIETS,
+        CASTLES,
+        DONE,
+    }
+
+    private final ChessBoard chessBoard;
+    private final Board board;
+    private final Color color;
+    private final KingSafetyAnalyzer kingSafety;
+    private final MoveList moves = new MoveList();
+    private Stage stage = Stage.CAPTURES;
+    private int index;
+    private int next = NONE;
+
+    public StagedMoveIterator(ChessBoard chessBoard) {
+        this.chessBoard = chessBoard;
+        this.board = chessBoard.getBoard();
+        this.color = chessBoard.getColor();
+        this.kingSafety = chessBoard.getKingSafety();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == NONE) {
+            if (index < moves.size()) {
+                int move = moves.get(index++);
+                if (isLegal(move)) {
+                    next = move;
+                }
+            } else if (stage == Stage.DONE) {
+                return false;
+            } else {
+                moves.clear();
+                index = 0;
+                generate(stage);
+                stage = Stage.values()[stage.ordinal() + 1];
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int nextInt() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int move = next;
+        next = NONE;
+        return move;
+    }
+
+    private boolean isLegal(int move) {
+        return switch (PackedMove.flag(move)) {
+            case PackedMove.EN_PASSANT -> kingSafety.isKingSafeAfterEnPassantCapture(PackedMove.from(move), PackedMove.to(move));
+            case PackedMove.CASTLE -> true;
+            default -> kingSafety.isKingSafeAfterMove(PackedMove.from(move), PackedMove.to(move));
+        };
+    }
+
+    private void generate(Stage stage) {
+        long enemyOccupancy = board.getOccupancy(color.swap());
+        long empty = ~board.getOccupancy();
+        switch (stage) {
+            case CAPTURES -> {
+                generatePawnCaptures(enemyOccupancy, empty);
+                generatePieceMoves(enemyOccupancy);
+            }
+            case QUIETS -> {
+                generatePawnPushes(empty);
+                generatePieceMoves(empty);
+            }
+            case CASTLES -> {
+                if (!kingSafety.isKingChecked()) {
+                    long kings = board.getPieces(Board.getId(Piece.Type.KING, color));
+                    if (kings != 0) {
+                        PackedMoveGenerator.generateCastles(board, color, chessBoard.getCastleRequirements().getMask(),
+                                Bitboards.firstSquare(kings), board.getOccupancy(), moves);
+                    }
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void generatePieceMoves(long targets) {
+        long occupancy = board.getOccupancy();
+        for (long pieces = board.getOccupancy(color) & ~board.getPieces(Board.getId(Piece.Type.PAWN, color)); pieces != 0; pieces &= pieces - 1) {
+            int from = Bitboards.firstSquare(pieces);
+            long attacks = switch (Board.getType(board.read(from))) {
+                case KNIGHT -> Attacks.knight(from);
+                case BISHOP -> Attacks.bishop(from, occupancy);
+                case ROOK -> Attacks.rook(from, occupancy);
+                case QUEEN -> Attacks.queen(from, occupancy);
+                case KING -> Attacks.king(from);
+                case PAWN -> 0;
+            };
+            for (attacks &= targets; attacks != 0; attacks &= attacks - 1) {
+                moves.add(PackedMove.of(from, Bitboards.firstSquare(attacks), PackedMove.NORMAL));
+            }
+        }
+    }
+
+    /**
+     * Captures, en passant captures and pushes to last rank, which are promotions.
+     */
+    private void generatePawnCaptures(long enemyOccupancy, long empty) {
+        int forward = color.isWhite() ? Board.SIZE : -Board.SIZE;
+        long lastRank = color.isWhite() ? RANK_8 : RANK_1;
+        for (long pawns = board.getPieces(Board.getId(Piece.Type.PAWN, color)); pawns != 0; pawns &= pawns - 1) {
+            int from = Bitboards.firstSquare(pawns);
+            if ((Bitboards.bit(from) & lastRank) != 0) {
+                continue;
+            }
+            long targets = Attacks.pawn(from, color) & enemyOccupancy;
+            long front = Bitboards.bit(from + forward);
+            targets |= front & empty & lastRank;
+            for (; targets != 0; targets &= targets - 1) {
+                addPawnMove(from, Bitboards.firstSquare(targets), lastRank);
+            }
+        }
+        int enPassantFile = chessBoard.getEnPassantFile();
+        if (enPassantFile != 0) {
+            int to = Bitboards.square(enPassantFile, color.isWhite() ? 6 : 3);
+            long pawns = Attacks.pawn(to, color.swap()) & board.getPieces(Board.getId(Piece.Type.PAWN, color));
+            for (; pawns != 0; pawns &= pawns - 1) {
+                moves.add(PackedMove.of(Bitboards.firstSquare(pawns), to, PackedMove.EN_PASSANT));
+            }
+        }
+    }
+
+    private void generatePawnPushes(long empty) {
+        int forward = color.isWhite() ? Board.SIZE : -Board.SIZE;
+        int startRank = color.isWhite() ? 2 : 7;
+        long lastRank = color.isWhite() ? RANK_8 : RANK_1;
+        for (long pawns = board.getPieces(Board.getId(Piece.Type.PAWN, color)); pawns != 0; pawns &= pawns - 1) {
+            int from = Bitboards.firstSquare(pawns);
+            if ((Bitboards.bit(from) & lastRank) != 0) {
+                continue;
+            }
+            int to = from + forward;
+            if ((Bitboards.bit(to) & empty & ~lastRank) == 0) {
+                continue;
+            }
+            moves.add(PackedMove.of(from, to, PackedMove.NORMAL));
+            if (Bitboards.rank(from) == startRank && (Bitboards.bit(to + forward) & empty) != 0) {
+                moves.add(PackedMove.of(from, to + forward, PackedMove.NORMAL));
+            }
+        }
+    }
+
+    private void addPawnMove(int from, int to, long lastRank) {
+        if ((Bitboards.bit(to) & lastRank) != 0) {
+            for (Piece.Type type : PROMOTION_TYPES) {
+                moves.add(PackedMove.promotion(from, to, type));
+            }
+        } else {
+            moves.add(PackedMove.of(from, to, PackedMove.NORMAL));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package chess.board.lowlevel;
+
+import chess.color.Color;
+import chess.pieces.Piece;
+
+/**
+ * Precomputed attack masks of pieces for bitboard based move generation and legality checks.
+ */
+public class Attacks {
+    private static final int[][] KNIGHT_STEPS = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+    private static final int[][] KING_STEPS = {{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}};
+    private static final int[][] ROOK_STEPS = {{1, 0}, {0, 1}, {-1, 0}, {0, -1}};
+    private static final int[][] BISHOP_STEPS = {{1, 1}, {-1, 1}, {-1, -1}, {1, -1}};
+    private static final long[] KNIGHT = new long[Bitboards.SQUARES];
+    private static final long[] KING = new long[Bitboards.SQUARES];
+    private static final long[] WHITE_PAWN = new long[Bitboards.SQUARES];
+    private static final long[] BLACK_PAWN = new long[Bitboards.SQUARES];
+    private static final long[][] BETWEEN = new long[Bitboards.SQUARES][Bitboards.SQUARES];
+    private static final long[][] LINE = new long[Bitboards.SQUARES][Bitboards.SQUARES];
+    private static final MagicTable ROOK = new MagicTable(ROOK_STEPS, MagicTable.ROOK_MAGICS);
+    private static final MagicTable BISHOP = new MagicTable(BISHOP_STEPS, MagicTable.BISHOP_MAGICS);
+
+    static {
+        for (int square = 0; square < Bitboards.SQUARES; square++) {
+            KNIGHT[square] = steps(square, KNIGHT_STEPS);
+            KING[square] = steps(square, KING_STEPS);
+            WHITE_PAWN[square] = steps(square, new int[][]{{-1, 1}, {1, 1}});
+            BLACK_PAWN[square] = steps(square, new int[][]{{-1, -1}, {1, -1}});
+        }
+        for (int from = 0; from < Bitboards.SQUARES; from++) {
+            for (int[] step : KING_STEPS) {
+                long ray = 0;
+                int x = Bitboards.file(from) + step[0];
+                int y = Bitboards.rank(from) + step[1];
+                while (isOnBoard(x, y)) {
+                    int to = Bitboards.square(x, y);
+                    BETWEEN[from][to] = ray;
+                    ray |= Bitboards.bit(to);
+                    x += step[0];
+                    y += step[1];
+                }
+                long line = ray | Bitboards.bit(from) | MagicTable.slide(from, new int[][]{{-step[0], -step[1]}}, 0);
+                for (long rest = ray; rest != 0; rest &= rest - 1) {
+                    LINE[from][Bitboards.firstSquare(rest)] = line;
+                }
+            }
+        }
+    }
+
+    private Attacks() {
+    }
+
+    private static boolean isOnBoard(int x, int y) {
+        return x >= 1 && x <= Board.SIZE && y >= 1 && y <= Board.SIZE;
+    }
+
+    private static long steps(int square, int[][] steps) {
+        long result = 0;
+        for (int[] step : steps) {
+            int x = Bitboards.file(square) + step[0];
+            int y = Bitboards.rank(square) + step[1];
+            if (isOnBoard(x, y)) {
+                result |= Bitboards.bit(Bitboards.square(x, y));
+            }
+        }
+        return result;
+    }
+
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    /**
+     * @return squares attacked by pawn of given color standing on square
+     */
+    public static long pawn(int square, Color color) {
+        return color.isWhite() ? WHITE_PAWN[square] : BLACK_PAWN[square];
+    }
+
+    public static long rook(int square, long occupancy) {
+        return ROOK.get(square, occupancy);
+    }
+
+    public static long bishop(int square, long occupancy) {
+        return BISHOP.get(square, occupancy);
+    }
+
+    public static long queen(int square, long occupancy) {
+        return rook(square, occupancy) | bishop(square, occupancy);
+    }
+
+    /**
+     * @return squares strictly between two squares lying on common line, 0 otherwise
+     */
+    public static long between(int first, int second) {
+        return BETWEEN[first][second];
+    }
+
+    /**
+     * @return whole line crossing both squares, 0 if they are not on common line
+     */
+    public static long line(int first, int second) {
+        return LINE[first][second];
+    }
+
+    /**
+     * @return mask of pieces of given color attacking square, with sliders blocked by occupancy
+     */
+    public static long attackersOf(Board board, int square, long occupancy, Color color) {
+        long queens = board.getPieces(Board.getId(Piece.Type.QUEEN, color));
+        return (knight(square) & board.getPieces(Board.getId(Piece.Type.KNIGHT, color)))
+                | (king(square) & board.getPieces(Board.getId(Piece.Type.KING, color)))
+                | (pawn(square, color.swap()) & board.getPieces(Board.getId(Piece.Type.PAWN, color)))
+                | (bishop(square, occupancy) & (board.getPieces(Board.getId(Piece.Type.BISHOP, color)) | queens))
+                | (rook(square, occupancy) & (board.getPieces(Board.getId(Piece.Type.ROOK, color)) | queens));
+    }
+
+    /**
+     * @param color side to move
+     * @param file  file of enemy pawn which just made double step
+     * @return true if enemy pawn stands on that file after double step and any pawn of side to move stands next to it
+     */
+    public static boolean canCaptureEnPassant(Board board, Color color, int file) {
+        int target = Bitboards.square(file, color.isWhite() ? 6 : 3);
+        int pawnSquare = Bitboards.square(file, color.isWhite() ? 5 : 4);
+        return board.read(pawnSquare) == Board.getId(Piece.Type.PAWN, color.swap())
+                && board.read(target) == Board.EMPTY
+                && (pawn(target, color.swap()) & board.getPieces(Board.getId(Piece.Type.PAWN, color))) != 0;
+    }
+}
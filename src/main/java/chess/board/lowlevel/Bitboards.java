@@ -0,0 +1,62 @@
+package chess.board.lowlevel;
+
+import chess.Position;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Square indexing used by bitboards: a1 is square 0, h1 is square 7 and h8 is square 63.
+ */
+public class Bitboards {
+    public static final int SQUARES = 64;
+
+    private Bitboards() {
+    }
+
+    public static int square(int x, int y) {
+        return (y - 1) * Board.SIZE + x - 1;
+    }
+
+    public static int square(Position position) {
+        return square(position.getX(), position.getY());
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static long bit(Position position) {
+        return bit(square(position));
+    }
+
+    public static Position position(int square) {
+        return Position.of(file(square), rank(square));
+    }
+
+    /**
+     * @return column of square in range 1..8, the same as {@link Position#getX()}
+     */
+    public static int file(int square) {
+        return (square & 7) + 1;
+    }
+
+    /**
+     * @return row of square in range 1..8, the same as {@link Position#getY()}
+     */
+    public static int rank(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    public static int firstSquare(long bitboard) {
+        return Long.numberOfTrailingZeros(bitboard);
+    }
+
+    public static Set<Position> toPositions(long bitboard) {
+        Set<Position> result = new HashSet<>(Long.bitCount(bitboard) * 2);
+        for (; bitboard != 0; bitboard &= bitboard - 1) {
+            result.add(position(firstSquare(bitboard)));
+        }
+        return result;
+    }
+}
@@ -1,6 +1,8 @@
 package chess.board.lowlevel;
 
 import chess.Position;
+import chess.color.Color;
+import chess.pieces.Piece;
 
 import java.util.Arrays;
 
@@ -19,40 +21,140 @@ public class Board {
     public static final byte BROOK = 11;
     public static final byte BQUEEN = 14;
     public static final byte BKING = 17;
-    private final byte[][] T;
+    private static final byte[] IDS = {
+            WPAWN, BPAWN, WKNIGHT, BKNIGHT, WBISHOP, BBISHOP, WROOK, BROOK, WQUEEN, BQUEEN, WKING, BKING
+    };
+    private static final Piece.Type[] TYPES = Piece.Type.values();
+    private final long[] pieces;
+    private long whiteOccupancy;
+    private long blackOccupancy;
+    private long key;
 
     private Board() {
-        T = new byte[SIZE][SIZE];
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                set(EMPTY, i, j);
+        pieces = new long[IDS.length];
+    }
+
+    private Board(Board B) {
+        pieces = B.pieces.clone();
+        whiteOccupancy = B.whiteOccupancy;
+        blackOccupancy = B.blackOccupancy;
+        key = B.key;
+    }
+
+    public void write(byte id, Position position) {
+        set(id, Bitboards.square(position));
+    }
+
+    public byte read(Position position) {
+        return get(Bitboards.square(position));
+    }
+
+    public void write(byte id, int square) {
+        set(id, square);
+    }
+
+    public byte read(int square) {
+        return get(square);
+    }
+
+    private void set(byte id, int square) {
+        long bit = Bitboards.bit(square);
+        byte previous = get(square);
+        if (previous != EMPTY) {
+            pieces[index(previous)] &= ~bit;
+            whiteOccupancy &= ~bit;
+            blackOccupancy &= ~bit;
+            key ^= Zobrist.piece(previous, square);
+        }
+        if (id != EMPTY) {
+            int index = index(id);
+            pieces[index] |= bit;
+            key ^= Zobrist.piece(id, square);
+            if (isWhiteIndex(index)) {
+                whiteOccupancy |= bit;
+            } else {
+                blackOccupancy |= bit;
             }
         }
     }
 
-    private Board(Board B) {
-        T = new byte[SIZE][SIZE];
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                set(B.get(i, j), i, j);
+    private byte get(int square) {
+        long bit = Bitboards.bit(square);
+        int first;
+        if ((whiteOccupancy & bit) != 0) {
+            first = 0;
+        } else if ((blackOccupancy & bit) != 0) {
+            first = 1;
+        } else {
+            return EMPTY;
+        }
+        for (int i = first; i < IDS.length; i += 2) {
+            if ((pieces[i] & bit) != 0) {
+                return IDS[i];
             }
         }
+        throw new IllegalStateException("Occupancy out of sync on square " + square);
     }
 
-    public void write(byte id, Position position) {
-        set(id, position.getX() - 1, position.getY() - 1);
+    /**
+     * @return mask of all squares occupied by pieces with given board id
+     */
+    public long getPieces(byte id) {
+        return pieces[index(id)];
     }
 
-    public byte read(Position position) {
-        return get(position.getX() - 1, position.getY() - 1);
+    /**
+     * @return Zobrist key of piece placement, updated on every write
+     */
+    public long getKey() {
+        return key;
     }
 
-    private void set(byte id, int x, int y) {
-        T[x][y] = id;
+    public long getOccupancy() {
+        return whiteOccupancy | blackOccupancy;
+    }
+
+    public long getOccupancy(Color color) {
+        if (color.isWhite()) {
+            return whiteOccupancy;
+        } else {
+            return blackOccupancy;
+        }
+    }
+
+    /**
+     * @return position of king of given color or null if there is no such king on board
+     */
+    public Position findKing(Color color) {
+        long kings = getPieces(color.isWhite() ? WKING : BKING);
+        if (kings == 0) {
+            return null;
+        }
+        return Bitboards.position(Bitboards.firstSquare(kings));
+    }
+
+    public static byte getId(Piece.Type type, Color color) {
+        return IDS[type.ordinal() * 2 + (color.isWhite() ? 0 : 1)];
+    }
+
+    public static Piece.Type getType(byte id) {
+        return TYPES[index(id) / 2];
+    }
+
+    public static boolean isWhite(byte id) {
+        return isWhiteIndex(index(id));
+    }
+
+    private static int index(byte id) {
+        int shifted = id - 1;
+        if (id < WPAWN || id > BKING || shifted % 3 == 2) {
+            throw new IllegalArgumentException("unknown board figure id: " + id);
+        }
+        return shifted / 3 * 2 + shifted % 3;
     }
 
-    private byte get(int x, int y) {
-        return T[x][y];
+    private static boolean isWhiteIndex(int index) {
+        return (index & 1) == 0;
     }
 
     public static Board getBlank() {
@@ -61,26 +163,26 @@ public class Board {
 
     public static Board getStart() {
         Board b = new Board();
-        for (int i = 0; i <= 7; i++) {
-            b.set(WPAWN, i, 1);
-            b.set(BPAWN, i, 6);
+        for (int x = 1; x <= SIZE; x++) {
+            b.set(WPAWN, Bitboards.square(x, 2));
+            b.set(BPAWN, Bitboards.square(x, 7));
         }
-        b.set(WROOK, 0, 0);
-        b.set(WROOK, 7, 0);
-        b.set(WKNIGHT, 1, 0);
-        b.set(WKNIGHT, 6, 0);
-        b.set(WBISHOP, 2, 0);
-        b.set(WBISHOP, 5, 0);
-        b.set(WQUEEN, 3, 0);
-        b.set(WKING, 4, 0);
-        b.set(BROOK, 0, 7);
-        b.set(BROOK, 7, 7);
-        b.set(BKNIGHT, 1, 7);
-        b.set(BKNIGHT, 6, 7);
-        b.set(BBISHOP, 2, 7);
-        b.set(BBISHOP, 5, 7);
-        b.set(BQUEEN, 3, 7);
-        b.set(BKING, 4, 7);
+        b.set(WROOK, Bitboards.square(1, 1));
+        b.set(WROOK, Bitboards.square(8, 1));
+        b.set(WKNIGHT, Bitboards.square(2, 1));
+        b.set(WKNIGHT, Bitboards.square(7, 1));
+        b.set(WBISHOP, Bitboards.square(3, 1));
+        b.set(WBISHOP, Bitboards.square(6, 1));
+        b.set(WQUEEN, Bitboards.square(4, 1));
+        b.set(WKING, Bitboards.square(5, 1));
+        b.set(BROOK, Bitboards.square(1, 8));
+        b.set(BROOK, Bitboards.square(8, 8));
+        b.set(BKNIGHT, Bitboards.square(2, 8));
+        b.set(BKNIGHT, Bitboards.square(7, 8));
+        b.set(BBISHOP, Bitboards.square(3, 8));
+        b.set(BBISHOP, Bitboards.square(6, 8));
+        b.set(BQUEEN, Bitboards.square(4, 8));
+        b.set(BKING, Bitboards.square(5, 8));
         return b;
     }
 
@@ -95,11 +197,11 @@ public class Board {
 
         Board board = (Board) o;
 
-        return Arrays.deepEquals(T, board.T);
+        return key == board.key && Arrays.equals(pieces, board.pieces);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(T);
+        return Long.hashCode(key);
     }
 }
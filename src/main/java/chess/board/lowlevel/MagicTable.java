@@ -0,0 +1,111 @@
+package chess.board.lowlevel;
+
+/**
+ * Sliding piece attacks indexed by magic multiplication of relevant occupancy.
+ * Magics were found by random search for multipliers mapping every blocker subset of a square
+ * to an index without destructive collisions.
+ */
+class MagicTable {
+    static final long[] ROOK_MAGICS = {
+            0x0080001084244006L, 0x0040100040002000L, 0x06802000801000A8L, 0x0100040821001000L,
+            0x0200042002000810L, 0xA880010200800400L, 0x1200008200080104L, 0x2080042440800100L,
+            0x2000800040008022L, 0x0881802000804001L, 0x4001001040200102L, 0x0000808010000800L,
+            0x8409000800050012L, 0x0C82000402000811L, 0x0101000100040200L, 0x0402000084610406L,
+            0x2080848000400021L, 0x0010014020004000L, 0x0000410020010010L, 0x0310010021000810L,
+            0x8303010008000590L, 0x0009808004010200L, 0x2002040008010210L, 0x0446C20000804401L,
+            0x0140008180006040L, 0x00208042002A0900L, 0x0000100080802000L, 0x0010010100082010L,
+            0x0080080080040080L, 0x2402040080020080L, 0x1802000200080184L, 0x6040188200010044L,
+            0x0000400020800080L, 0x0302004102002080L, 0x0000200084801004L, 0x0160800802801004L,
+            0x0450800800800400L, 0x8084800400800200L, 0x802C528804001110L, 0x02102C0382001043L,
+            0x4000400080208000L, 0x0120100040284000L, 0x2080200010008080L, 0x0008100008008080L,
+            0x0488000804008080L, 0x1004000402008080L, 0x20E7000200010004L, 0x1110048408420025L,
+            0x1000420020810200L, 0x2040400829008100L, 0x0207A00210008880L, 0x0400808800900280L,
+            0x1164080080040080L, 0x4141041020400801L, 0x0198100288010400L, 0x0002084520840200L,
+            0x0400804102002012L, 0x0422090020408012L, 0x0200200008410011L, 0x201000048810A101L,
+            0x00220004A1100802L, 0x0202004110440802L, 0x0090104092010804L, 0x0110440100802052L
+    };
+    static final long[] BISHOP_MAGICS = {
+            0x08100240C1020200L, 0x1204080808488000L, 0x000868010222A100L, 0x0002408100020040L,
+            0x0062021140120000L, 0x00228210428088C2L, 0x2008809010100640L, 0x0042004200900840L,
+            0x2000408404541048L, 0x100008124C040830L, 0x0001440106220028L, 0x0811041042000100L,
+            0x0920842420C98400L, 0x00002D04324204B0L, 0x00008213440A4000L, 0x80010A0101080300L,
+            0x00384040081810A0L, 0x0060090204014200L, 0x0009009011060010L, 0x345400380420CA12L,
+            0x0084000220A00001L, 0x6800804040602020L, 0x0000810400849000L, 0x0D0A0015A2120602L,
+            0x4020111004100200L, 0x1010080402084110L, 0x8000480004042408L, 0x4004010100200880L,
+            0x0019010024104000L, 0x0090009082080400L, 0x000C408004480400L, 0x006111004A108A80L,
+            0x891884100024A01AL, 0x8104020840201D30L, 0x0041C02802900841L, 0x8404400820820200L,
+            0x5000820200040090L, 0x200401220008C800L, 0x8002040060010800L, 0x0004208821420900L,
+            0x0440C8080840C020L, 0x0000880910033808L, 0x0509220022001001L, 0x0000004010408A00L,
+            0x290C380900413400L, 0x0240280800400020L, 0x0022042804841200L, 0x0002020202000028L,
+            0x0024090808441882L, 0x0002120111088002L, 0x0000224212906014L, 0x041440020A020000L,
+            0x8410000410440000L, 0x4009442008024200L, 0x0810038811040008L, 0x1008080084204000L,
+            0x0810222510101020L, 0x40080044040402A2L, 0x1019000022091080L, 0x4000022081411091L,
+            0x1008020070105041L, 0x1280004043240108L, 0x0820202101010104L, 0x0540012C0C064640L
+    };
+    private final long[] masks = new long[Bitboards.SQUARES];
+    private final long[] magics;
+    private final int[] shifts = new int[Bitboards.SQUARES];
+    private final long[][] attacks = new long[Bitboards.SQUARES][];
+
+    MagicTable(int[][] steps, long[] magics) {
+        this.magics = magics;
+        for (int square = 0; square < Bitboards.SQUARES; square++) {
+            masks[square] = relevantOccupancy(square, steps);
+            int bits = Long.bitCount(masks[square]);
+            shifts[square] = Long.SIZE - bits;
+            attacks[square] = new long[1 << bits];
+            long subset = 0;
+            do {
+                attacks[square][index(square, subset)] = slide(square, steps, subset);
+                subset = (subset - masks[square]) & masks[square];
+            } while (subset != 0);
+        }
+    }
+
+    long get(int square, long occupancy) {
+        return attacks[square][index(square, occupancy)];
+    }
+
+    private int index(int square, long occupancy) {
+        return (int) (((occupancy & masks[square]) * magics[square]) >>> shifts[square]);
+    }
+
+    /**
+     * @return squares on rays which can block slider, edge squares never block so they are skipped
+     */
+    private static long relevantOccupancy(int square, int[][] steps) {
+        long result = 0;
+        for (int[] step : steps) {
+            int x = Bitboards.file(square) + step[0];
+            int y = Bitboards.rank(square) + step[1];
+            while (isOnBoard(x + step[0], y + step[1])) {
+                result |= Bitboards.bit(Bitboards.square(x, y));
+                x += step[0];
+                y += step[1];
+            }
+        }
+        return result;
+    }
+
+    static long slide(int square, int[][] steps, long occupancy) {
+        long result = 0;
+        for (int[] step : steps) {
+            int x = Bitboards.file(square) + step[0];
+            int y = Bitboards.rank(square) + step[1];
+            while (isOnBoard(x, y)) {
+                long bit = Bitboards.bit(Bitboards.square(x, y));
+                result |= bit;
+                if ((occupancy & bit) != 0) {
+                    break;
+                }
+                x += step[0];
+                y += step[1];
+            }
+        }
+        return result;
+    }
+
+    private static boolean isOnBoard(int x, int y) {
+        return x >= 1 && x <= Board.SIZE && y >= 1 && y <= Board.SIZE;
+    }
+}
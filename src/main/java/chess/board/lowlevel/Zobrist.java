@@ -0,0 +1,70 @@
+package chess.board.lowlevel;
+
+import chess.color.Color;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing. Seed is fixed, so keys are stable between runs and can be stored.
+ */
+public class Zobrist {
+    private static final long SEED = 0x5EED_C0FFEE_2023L;
+    private static final int PIECE_IDS = Board.BKING + 1;
+    private static final long[][] PIECES = new long[PIECE_IDS][Bitboards.SQUARES];
+    private static final long[] CASTLES = new long[16];
+    private static final long[] EN_PASSANT_FILES = new long[Board.SIZE + 1];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int id = Board.WPAWN; id < PIECE_IDS; id++) {
+            for (int square = 0; square < Bitboards.SQUARES; square++) {
+                PIECES[id][square] = random.nextLong();
+            }
+        }
+        for (int mask = 1; mask < CASTLES.length; mask++) {
+            CASTLES[mask] = random.nextLong();
+        }
+        for (int file = 1; file < EN_PASSANT_FILES.length; file++) {
+            EN_PASSANT_FILES[file] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    public static long piece(byte id, int square) {
+        return PIECES[id][square];
+    }
+
+    /**
+     * @param mask castle rights as in {@link chess.board.requirements.CastleRequirements#getMask()}
+     */
+    public static long castle(int mask) {
+        return CASTLES[mask];
+    }
+
+    /**
+     * @param file en passant file in range 1..8 or 0 when en passant is not possible
+     */
+    public static long enPassant(int file) {
+        return EN_PASSANT_FILES[file];
+    }
+
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+
+    /**
+     * @param enPassantFile file on which en passant capture is possible or 0
+     * @return key of whole position
+     */
+    public static long key(Board board, Color color, int castleMask, int enPassantFile) {
+        long key = board.getKey() ^ CASTLES[castleMask] ^ EN_PASSANT_FILES[enPassantFile];
+        if (color.isBlack()) {
+            key ^= BLACK_TO_MOVE;
+        }
+        return key;
+    }
+}
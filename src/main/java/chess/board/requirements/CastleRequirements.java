@@ -5,6 +5,22 @@ import chess.color.Color;
 import java.util.Objects;
 
 public class CastleRequirements {
+    public static final int WHITE_SHORT = 1;
+    public static final int WHITE_LONG = 2;
+    public static final int BLACK_SHORT = 4;
+    public static final int BLACK_LONG = 8;
+    private static final CastleRequirements[] BY_MASK = new CastleRequirements[16];
+
+    static {
+        for (int mask = 0; mask < BY_MASK.length; mask++) {
+            BY_MASK[mask] = new CastleRequirements(
+                    (mask & WHITE_SHORT) != 0,
+                    (mask & WHITE_LONG) != 0,
+                    (mask & BLACK_SHORT) != 0,
+                    (mask & BLACK_LONG) != 0);
+        }
+    }
+
     private final boolean whiteShort;
     private final boolean whiteLong;
     private final boolean blackShort;
@@ -64,6 +80,20 @@ public class CastleRequirements {
         }
     }
 
+    /**
+     * @return shared instance for mask built from WHITE_SHORT, WHITE_LONG, BLACK_SHORT and BLACK_LONG flags
+     */
+    public static CastleRequirements fromMask(int mask) {
+        return BY_MASK[mask];
+    }
+
+    public int getMask() {
+        return (whiteShort ? WHITE_SHORT : 0)
+                | (whiteLong ? WHITE_LONG : 0)
+                | (blackShort ? BLACK_SHORT : 0)
+                | (blackLong ? BLACK_LONG : 0);
+    }
+
     public CastleRequirements copy() {
         return new CastleRequirements(whiteShort, whiteLong, blackShort, blackLong);
     }
@@ -1,6 +1,8 @@
 package chess.formats.algebraic;
 
 import chess.board.ChessBoard;
+import chess.board.fields.Field;
+import chess.board.lowlevel.Bitboards;
 import chess.moves.raw.RawMove;
 import chess.moves.raw.RawPromotion;
 import chess.moves.valid.ValidMove;
@@ -10,9 +12,12 @@ import chess.moves.valid.executable.Promotion;
 import chess.moves.valid.executable.SimpleMove;
 import chess.pieces.Piece;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class LongAlgebraicFactory {
+    private static final int TYPES = Piece.Type.values().length;
     private static final LongAlgebraicFactory longAlgebraicFactory = new LongAlgebraicFactory();
 
     private LongAlgebraicFactory() {
@@ -23,6 +28,7 @@ public class LongAlgebraicFactory {
     }
 
     AlgebraicUtility utility = AlgebraicUtility.getInstance();
+    private final Map<Integer, String> names = new ConcurrentHashMap<>();
 
     public String moveToLongAlgebraic(ChessBoard board, ValidMove move) {
         if (move instanceof SimpleMove simpleMove) {
@@ -50,10 +56,31 @@ public class LongAlgebraicFactory {
     }
 
     public String moveToLongAlgebraic(ChessBoard board, RawMove move) {
+        Field field = board.getField(move.getStartPosition());
+        return moveToLongAlgebraic(field.hasPiece() ? field.getPiece().getType() : null, move);
+    }
+
+    /**
+     * Names are interned by moving piece, squares and promotion type, so equal moves share one String.
+     *
+     * @param type type of moving piece or null when start field is empty
+     */
+    public String moveToLongAlgebraic(Piece.Type type, RawMove move) {
+        return names.computeIfAbsent(key(type, move), key -> createName(type, move));
+    }
+
+    private static int key(Piece.Type type, RawMove move) {
+        int promotion = move instanceof RawPromotion rawPromotion ? rawPromotion.getType().ordinal() + 1 : 0;
+        int piece = type == null ? TYPES : type.ordinal();
+        return Bitboards.square(move.getStartPosition())
+                | Bitboards.square(move.getEndPosition()) << 6
+                | promotion << 12
+                | piece << 15;
+    }
+
+    private String createName(Piece.Type type, RawMove move) {
         Optional<String> castle = utility.castleToAlgebraic(move);
-        if (castle.isPresent()
-                && board.getField(move.getStartPosition()).hasPiece()
-                && board.getField(move.getStartPosition()).getPiece().getType().equals(Piece.Type.KING)) {
+        if (castle.isPresent() && type == Piece.Type.KING) {
             return castle.get();
         }
 
@@ -65,7 +92,10 @@ public class LongAlgebraicFactory {
                     utility.typeToAlgebraic(promotion.getType());
         }
 
-        return utility.typeToAlgebraic(board.getField(move.getStartPosition()).getPiece().getType()) +
+        if (type == null) {
+            throw new IllegalArgumentException("No piece on start position of " + move);
+        }
+        return utility.typeToAlgebraic(type) +
                 utility.positionToAlgebraic(move.getStartPosition()) +
                 "-" +
                 utility.positionToAlgebraic(move.getEndPosition());
@@ -24,7 +24,14 @@ public class FENFactory {
                 colorToChar(chessBoard.getColor()) +
                 ' ' +
                 castleRequirementsToString(chessBoard.getCastleRequirements()) +
-                " -";
+                ' ' +
+                enPassantToString(chessBoard);
+    }
+
+    private String enPassantToString(ChessBoard chessBoard) {
+        return chessBoard.getEnPassantPosition()
+                .map(position -> "" + (char) ('a' + position.getX() - 1) + position.getY())
+                .orElse("-");
     }
 
     private String boardTOFEN(Board board) {
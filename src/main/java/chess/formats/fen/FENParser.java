@@ -29,22 +29,29 @@ public class FENParser {
         Board board = parsePieces(splitted[0]);
         Color moveColor = parseColor(splitted[1]);
         CastleRequirements castleRequirements = parseCastles(splitted[2]);
+        int enPassantFile = parseEnPassantFile(splitted[3], moveColor);
 
-        Position whiteKing = null;
-        Position blackKing = null;
+        Position whiteKing = board.findKing(Color.white);
+        Position blackKing = board.findKing(Color.black);
 
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                if (board.read(Position.of(i, j)) == Board.WKING) {
-                    whiteKing = Position.of(i, j);
-                }
-                if (board.read(Position.of(i, j)) == Board.BKING) {
-                    blackKing = Position.of(i, j);
-                }
-            }
-        }
+        return new ChessBoard(board, moveColor, castleRequirements, enPassantFile, null, whiteKing, blackKing);
+    }
 
-        return new ChessBoard(board, moveColor, castleRequirements, null, whiteKing, blackKing);
+    /**
+     * Target square is behind pawn of opponent, so it is on 6th rank when white is to move and on 3rd otherwise.
+     *
+     * @return file of en passant target square or 0 for "-"
+     */
+    private int parseEnPassantFile(String enPassant, Color moveColor) {
+        if (enPassant.equals("-")) {
+            return 0;
+        }
+        char rank = moveColor.isWhite() ? '6' : '3';
+        if (enPassant.length() != 2 || enPassant.charAt(0) < 'a' || enPassant.charAt(0) > 'h'
+                || enPassant.charAt(1) != rank) {
+            throw new IllegalArgumentException(enPassant + " is not a valid en passant square");
+        }
+        return enPassant.charAt(0) - 'a' + 1;
     }
 
     private Board parsePieces(String pieces) {
@@ -52,6 +59,9 @@ public class FENParser {
         List<List<Integer>> expanded = Arrays.stream(splitted)
                 .map(this::expandNumbers)
                 .toList();
+        if (expanded.size() != Board.SIZE || expanded.stream().anyMatch(row -> row.size() != Board.SIZE)) {
+            throw new IllegalArgumentException(pieces + " is not a valid piece placement");
+        }
         Board board = Board.getBlank();
         for (int y = 1; y <= Board.SIZE; y++) {
             for (int x = 1; x <= Board.SIZE; x++) {
@@ -111,7 +121,7 @@ public class FENParser {
             case 98 -> Board.BBISHOP;
             case 113 -> Board.BQUEEN;
             case 107 -> Board.BKING;
-            default -> throw new IllegalStateException("Unexpected value: " + ascii);
+            default -> throw new IllegalArgumentException((char) ascii + " is not a valid piece");
         };
     }
 }
@@ -0,0 +1,140 @@
+package chess.moves.packed;
+
+import chess.Position;
+import chess.board.ChessBoard;
+import chess.board.lowlevel.Bitboards;
+import chess.board.lowlevel.Board;
+import chess.color.Color;
+import chess.moves.raw.RawMove;
+import chess.moves.raw.RawPromotion;
+import chess.moves.valid.executable.*;
+import chess.pieces.Piece;
+
+/**
+ * Move encoded in single int: bits 0-5 start square, 6-11 end square, 12-13 flag, 14-16 promotion type.
+ * Squares are indexed as in {@link Bitboards}.
+ */
+public class PackedMove {
+    public static final int NORMAL = 0;
+    public static final int CASTLE = 1;
+    public static final int EN_PASSANT = 2;
+    public static final int PROMOTION = 3;
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int TO_SHIFT = 6;
+    private static final int FLAG_SHIFT = 12;
+    private static final int TYPE_SHIFT = 14;
+    private static final Piece.Type[] TYPES = Piece.Type.values();
+
+    private PackedMove() {
+    }
+
+    public static int of(int from, int to, int flag) {
+        return from | to << TO_SHIFT | flag << FLAG_SHIFT;
+    }
+
+    public static int promotion(int from, int to, Piece.Type type) {
+        return of(from, to, PROMOTION) | type.ordinal() << TYPE_SHIFT;
+    }
+
+    public static int from(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    public static int to(int move) {
+        return move >>> TO_SHIFT & SQUARE_MASK;
+    }
+
+    public static int flag(int move) {
+        return move >>> FLAG_SHIFT & 3;
+    }
+
+    public static Piece.Type promotionType(int move) {
+        return TYPES[move >>> TYPE_SHIFT & 7];
+    }
+
+    /**
+     * @return rook move done together with castle, packed as normal move
+     */
+    public static int castleRookMove(int move) {
+        int to = to(move);
+        if (Bitboards.file(to) == 7) {
+            return of(to + 1, to - 1, NORMAL);
+        }
+        return of(to - 2, to + 1, NORMAL);
+    }
+
+    public static int of(ExecutableMove move) {
+        RawMove representation = move.getRepresentation();
+        int from = Bitboards.square(representation.getStartPosition());
+        int to = Bitboards.square(representation.getEndPosition());
+        if (move instanceof Castle) {
+            return of(from, to, CASTLE);
+        }
+        if (move instanceof EnPassantCapture) {
+            return of(from, to, EN_PASSANT);
+        }
+        if (move instanceof Promotion promotion) {
+            return promotion(from, to, promotion.getType());
+        }
+        return of(from, to, NORMAL);
+    }
+
+    /**
+     * Encodes raw move using pieces on board to recognise castles and en passant captures, legality is not checked.
+     */
+    public static int of(RawMove move, Board board) {
+        int from = Bitboards.square(move.getStartPosition());
+        int to = Bitboards.square(move.getEndPosition());
+        if (move instanceof RawPromotion rawPromotion) {
+            return promotion(from, to, rawPromotion.getType());
+        }
+        byte id = board.read(from);
+        if (id != Board.EMPTY) {
+            Piece.Type type = Board.getType(id);
+            if (type == Piece.Type.KING && Math.abs(Bitboards.file(from) - Bitboards.file(to)) == 2) {
+                return of(from, to, CASTLE);
+            }
+            if (type == Piece.Type.PAWN && Bitboards.file(from) != Bitboards.file(to) && board.read(to) == Board.EMPTY) {
+                return of(from, to, EN_PASSANT);
+            }
+        }
+        return of(from, to, NORMAL);
+    }
+
+    public static RawMove toRawMove(int move) {
+        Position start = Bitboards.position(from(move));
+        Position end = Bitboards.position(to(move));
+        if (flag(move) == PROMOTION) {
+            return new RawPromotion(start, end, promotionType(move));
+        }
+        return RawMove.of(start, end);
+    }
+
+    /**
+     * @param chessBoard position in which move is played
+     */
+    public static ExecutableMove toExecutableMove(int move, ChessBoard chessBoard) {
+        return toExecutableMove(move, chessBoard.getBoard(), chessBoard.getColor());
+    }
+
+    /**
+     * @param board board on which move is played
+     * @param color color of moving side
+     */
+    public static ExecutableMove toExecutableMove(int move, Board board, Color color) {
+        RawMove rawMove = RawMove.of(Bitboards.position(from(move)), Bitboards.position(to(move)));
+        return switch (flag(move)) {
+            case CASTLE -> {
+                int rookMove = castleRookMove(move);
+                yield new Castle(rawMove, RawMove.of(Bitboards.position(from(rookMove)), Bitboards.position(to(rookMove))), board);
+            }
+            case EN_PASSANT -> new EnPassantCapture(rawMove, board);
+            case PROMOTION -> new Promotion(rawMove, board, color, promotionType(move));
+            default -> new SimpleMove(rawMove, board);
+        };
+    }
+
+    public static String toString(int move) {
+        return toRawMove(move).toString();
+    }
+}
@@ -38,6 +38,10 @@ public class Castle implements ExecutableMove {
     }
 
 
+    public RawMove getRookMove() {
+        return rookMove;
+    }
+
     @Override
     public RawMove getRepresentation() {
         return kingMove;
@@ -29,23 +29,10 @@ public class Promotion extends Vector implements ExecutableMove {
     }
 
     private byte convert(Type type, Color color) {
-        if (color.isWhite()) {
-            return switch (type) {
-                case KNIGHT -> Board.WKNIGHT;
-                case BISHOP -> Board.WBISHOP;
-                case ROOK -> Board.WROOK;
-                case QUEEN -> Board.WQUEEN;
-                default -> throw new IllegalStateException("Illegal promotion");
-            };
-        } else {
-            return switch (type) {
-                case KNIGHT -> Board.BKNIGHT;
-                case BISHOP -> Board.BBISHOP;
-                case ROOK -> Board.BROOK;
-                case QUEEN -> Board.BQUEEN;
-                default -> throw new IllegalStateException("Illegal promotion");
-            };
+        if (type == Type.PAWN || type == Type.KING) {
+            throw new IllegalStateException("Illegal promotion");
         }
+        return Board.getId(type, color);
     }
 
     @Override
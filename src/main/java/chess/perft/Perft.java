@@ -0,0 +1,80 @@
+package chess.perft;
+
+import chess.board.ChessBoard;
+import chess.formats.algebraic.LongAlgebraicFactory;
+import chess.moves.valid.executable.ExecutableMove;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Counts leaf nodes of legal move tree, used to validate move generation. Work is split between
+ * threads of fork join pool at root and near root plies.
+ */
+public class Perft {
+    private final ForkJoinPool pool;
+    private final PerftCache cache;
+
+    public Perft() {
+        this(ForkJoinPool.commonPool(), null);
+    }
+
+    public Perft(PerftCache cache) {
+        this(ForkJoinPool.commonPool(), cache);
+    }
+
+    /**
+     * @param cache cache of subtree counts shared by all threads, or null to count every node
+     */
+    public Perft(ForkJoinPool pool, PerftCache cache) {
+        this.pool = pool;
+        this.cache = cache;
+    }
+
+    public PerftResult perft(ChessBoard chessBoard, int depth) {
+        checkDepth(depth);
+        long startTime = System.nanoTime();
+        long nodes = pool.invoke(new PerftTask(chessBoard, depth, 0, cache));
+        return new PerftResult(depth, nodes, System.nanoTime() - startTime, Map.of());
+    }
+
+    /**
+     * Same as {@link #perft(ChessBoard, int)} but also reports number of nodes under each root move.
+     */
+    public PerftResult divide(ChessBoard chessBoard, int depth) {
+        checkDepth(depth);
+        if (depth == 0) {
+            return perft(chessBoard, depth);
+        }
+        long startTime = System.nanoTime();
+        List<ExecutableMove> moves = chessBoard.getGenerator().getAllPossibleExecutableMoves();
+        List<PerftTask> tasks = new ArrayList<>(moves.size());
+        for (ExecutableMove move : moves) {
+            PerftTask task = new PerftTask(chessBoard.makeMove(move), depth - 1, 1, cache);
+            tasks.add(task);
+            pool.execute(task);
+        }
+        Map<String, Long> divide = new LinkedHashMap<>();
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            long moveNodes = tasks.get(i).join();
+            divide.put(LongAlgebraicFactory.getInstance().moveToLongAlgebraic(chessBoard, moves.get(i)).strip(), moveNodes);
+            nodes += moveNodes;
+        }
+        return new PerftResult(depth, nodes, System.nanoTime() - startTime, divide);
+    }
+
+    public Optional<PerftCache> getCache() {
+        return Optional.ofNullable(cache);
+    }
+
+    private void checkDepth(int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Perft depth must not be negative: " + depth);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package chess.perft;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed size transposition table of perft subtree counts, shared by all perft threads without locking.
+ * Each entry takes two longs: data (node count and depth) and key xor data. Entry is accepted only when
+ * both words match the probed key, so an entry torn by concurrent writes reads as a miss.
+ * Bucket has two entries, first one keeps the deepest subtree, second one is always replaced.
+ */
+public class PerftCache {
+    private static final int DEPTH_BITS = 8;
+    private static final long DEPTH_MASK = (1L << DEPTH_BITS) - 1;
+    private static final int LONGS_PER_BUCKET = 4;
+    private final long[] table;
+    private final int bucketMask;
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * @param megabytes approximate memory used by table, rounded down to power of two buckets
+     */
+    public PerftCache(int megabytes) {
+        if (megabytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + megabytes);
+        }
+        long buckets = Long.highestOneBit((long) megabytes * 1024 * 1024 / (LONGS_PER_BUCKET * Long.BYTES));
+        buckets = Math.min(buckets, Integer.highestOneBit(Integer.MAX_VALUE / LONGS_PER_BUCKET));
+        table = new long[(int) buckets * LONGS_PER_BUCKET];
+        bucketMask = (int) buckets - 1;
+    }
+
+    /**
+     * @return stored number of leaf nodes or -1 when subtree is not cached
+     */
+    public long probe(long key, int depth) {
+        probes.increment();
+        int index = index(key);
+        for (int entry = index; entry < index + LONGS_PER_BUCKET; entry += 2) {
+            long data = table[entry];
+            if ((table[entry + 1] ^ data) == key && (data & DEPTH_MASK) == depth) {
+                hits.increment();
+                return data >>> DEPTH_BITS;
+            }
+        }
+        return -1;
+    }
+
+    public void store(long key, int depth, long nodes) {
+        int index = index(key);
+        long data = nodes << DEPTH_BITS | depth;
+        long stored = table[index];
+        int entry = (table[index + 1] ^ stored) == key || (stored & DEPTH_MASK) <= depth ? index : index + 2;
+        table[entry] = data;
+        table[entry + 1] = key ^ data;
+    }
+
+    /**
+     * Removes all entries and resets statistics, so table can be reused by next perft run.
+     */
+    public void clear() {
+        Arrays.fill(table, 0);
+        probes.reset();
+        hits.reset();
+    }
+
+    private int index(long key) {
+        return ((int) (key ^ key >>> 32) & bucketMask) * LONGS_PER_BUCKET;
+    }
+
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public double getHitRate() {
+        long probeCount = getProbes();
+        if (probeCount == 0) {
+            return 0;
+        }
+        return (double) getHits() / probeCount;
+    }
+
+    @Override
+    public String toString() {
+        return "Perft cache: " + getHits() + " hits of " + getProbes() + " probes (" + Math.round(getHitRate() * 100) + "%)";
+    }
+}
@@ -0,0 +1,24 @@
+package chess.perft;
+
+import java.util.Map;
+
+/**
+ * @param divide number of leaf nodes under each root move, keyed by move in long algebraic notation, empty when not requested
+ */
+public record PerftResult(int depth, long nodes, long nanos, Map<String, Long> divide) {
+    public double seconds() {
+        return nanos / 1e9;
+    }
+
+    public long nodesPerSecond() {
+        if (nanos == 0) {
+            return 0;
+        }
+        return (long) (nodes / seconds());
+    }
+
+    @Override
+    public String toString() {
+        return "Perft(" + depth + ") = " + nodes + " nodes in " + seconds() + "s, " + nodesPerSecond() + " nps";
+    }
+}
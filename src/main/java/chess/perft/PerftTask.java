@@ -0,0 +1,82 @@
+package chess.perft;
+
+import chess.board.ChessBoard;
+import chess.board.SearchBoard;
+import chess.moves.packed.MoveList;
+
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts leaf nodes of subtree. Plies close to root are split into subtasks, deeper plies are counted
+ * sequentially on {@link SearchBoard}.
+ */
+class PerftTask extends RecursiveTask<Long> {
+    static final int SPLIT_PLIES = 2;
+    static final int MIN_SPLIT_DEPTH = 3;
+    private static final int MIN_CACHED_DEPTH = 2;
+    private final ChessBoard chessBoard;
+    private final int depth;
+    private final int ply;
+    private final PerftCache cache;
+
+    /**
+     * @param cache shared cache of subtree counts or null
+     */
+    PerftTask(ChessBoard chessBoard, int depth, int ply, PerftCache cache) {
+        this.chessBoard = chessBoard;
+        this.depth = depth;
+        this.ply = ply;
+        this.cache = cache;
+    }
+
+    @Override
+    protected Long compute() {
+        if (ply >= SPLIT_PLIES || depth < MIN_SPLIT_DEPTH) {
+            return count(new SearchBoard(chessBoard));
+        }
+        List<PerftTask> subtasks = chessBoard.getGenerator().getAllPossibleExecutableMoves().stream()
+                .map(move -> new PerftTask(chessBoard.makeMove(move), depth - 1, ply + 1, cache))
+                .toList();
+        invokeAll(subtasks);
+        return subtasks.stream().mapToLong(PerftTask::join).sum();
+    }
+
+    private long count(SearchBoard searchBoard) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList[] moveLists = new MoveList[depth];
+        for (int i = 0; i < depth; i++) {
+            moveLists[i] = new MoveList();
+        }
+        return count(searchBoard, depth, moveLists);
+    }
+
+    private long count(SearchBoard searchBoard, int depth, MoveList[] moveLists) {
+        long key = 0;
+        if (cache != null && depth >= MIN_CACHED_DEPTH) {
+            key = searchBoard.zobrist();
+            long cached = cache.probe(key, depth);
+            if (cached >= 0) {
+                return cached;
+            }
+        }
+        MoveList moves = moveLists[depth - 1];
+        moves.clear();
+        searchBoard.getAllPossibleMoves(moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long result = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            searchBoard.doMove(moves.get(i));
+            result += count(searchBoard, depth - 1, moveLists);
+            searchBoard.undoMove();
+        }
+        if (cache != null) {
+            cache.store(key, depth, result);
+        }
+        return result;
+    }
+}
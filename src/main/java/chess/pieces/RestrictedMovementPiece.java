@@ -1,68 +1,40 @@
 package chess.pieces;
 
 import chess.board.ChessBoard;
-import chess.board.fields.Field;
 import chess.Position;
+import chess.board.lowlevel.Bitboards;
+import chess.board.lowlevel.Board;
 import chess.color.Color;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 public abstract class RestrictedMovementPiece extends Piece {
     RestrictedMovementPiece(Color color, Position position) {
         super(color, position);
     }
 
-    protected Set<Position> getPossibleStartPositions(ChessBoard chessBoard, Set<Position> steps) {
-        return getPossibleNonCollidingPositions(chessBoard, steps).stream()
-                .map(p -> getField(chessBoard, p))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .filter(Field::hasPiece)
-                .map(Field::getPiece)
-                .filter(piece -> piece.partiallyEquals(this))
-                .map(Piece::getPosition)
-                .collect(Collectors.toSet());
-    }
+    /**
+     * @return mask of squares attacked from square, rays end on first occupied square
+     */
+    protected abstract long getAttacks(int square, long occupancy);
 
-    protected Set<Position> getPossibleEndPositions(ChessBoard chessBoard, Set<Position> steps) {
-        return getPossibleNonCollidingPositions(chessBoard, steps).stream()
-                .filter(position -> {
-                    if (chessBoard.getField(position).isEmpty()) {
-                        return true;
-                    } else {
-                        Piece piece = chessBoard.getField(position).getPiece();
-                        return piece.color.equal(color.swap());
-                    }
-                })
-                .collect(Collectors.toSet());
+    @Override
+    public Set<Position> getPossibleStartPositions(ChessBoard chessBoard) {
+        Board board = chessBoard.getBoard();
+        return Bitboards.toPositions(getAttacks(chessBoard) & board.getPieces(Board.getId(getType(), color)));
     }
 
-    protected Set<Position> getAttackedPositions(ChessBoard chessBoard, Set<Position> steps) {
-        return getPossibleNonCollidingPositions(chessBoard, steps);
+    @Override
+    public Set<Position> getPossibleEndPositions(ChessBoard chessBoard) {
+        return Bitboards.toPositions(getAttacks(chessBoard) & ~chessBoard.getBoard().getOccupancy(color));
     }
 
-    private Set<Position> getPossibleNonCollidingPositions(ChessBoard chessBoard, Set<Position> Steps) {
-        return Steps.stream()
-                .map(p -> getLineOfPossibleNonCollidingPositions(chessBoard, p))
-                .flatMap(Collection::stream)
-                .collect(Collectors.toSet());
+    @Override
+    public Set<Position> getAttackedPositions(ChessBoard chessBoard) {
+        return Bitboards.toPositions(getAttacks(chessBoard));
     }
 
-    private Set<Position> getLineOfPossibleNonCollidingPositions(ChessBoard chessBoard, Position step) {
-        Set<Position> result = new HashSet<>();
-        Position temporaryPosition = position.add(step);
-        while (temporaryPosition.isOnBoard()) {
-            Field field = chessBoard.getField(temporaryPosition);
-            result.add(temporaryPosition);
-            if (field.hasPiece()) {
-                break;
-            }
-            temporaryPosition = temporaryPosition.add(step);
-        }
-        return result;
+    private long getAttacks(ChessBoard chessBoard) {
+        return getAttacks(Bitboards.square(position), chessBoard.getBoard().getOccupancy());
     }
 }
@@ -1,43 +1,61 @@
 package chess.validation;
 
-import chess.Position;
 import chess.board.ChessBoard;
+import chess.board.features.ExecutableMoveGenerator;
+import chess.board.features.LegalMoveCache;
+import chess.board.lowlevel.Bitboards;
+import chess.moves.packed.PackedMove;
 import chess.moves.raw.RawMove;
 import chess.moves.raw.RawPromotion;
 import chess.moves.valid.UnTypedPromotion;
 import chess.moves.valid.ValidMove;
-import chess.moves.valid.executable.Castle;
-import chess.moves.valid.executable.EnPassantCapture;
 import chess.moves.valid.executable.Promotion;
-import chess.moves.valid.executable.SimpleMove;
 
 import java.util.Optional;
 
 public class ValidMoveFactory {
     private final ChessBoard chessBoard;
-    private final MoveValidator validator;
+    private final LegalMoveCache cache;
 
     public ValidMoveFactory(ChessBoard chessBoard) {
+        this(chessBoard, null);
+    }
+
+    /**
+     * @param cache legal moves of position are looked up in it, so repeated validation in the same position
+     *              does not generate moves again, can be null to generate moves of each validated move
+     */
+    public ValidMoveFactory(ChessBoard chessBoard, LegalMoveCache cache) {
         this.chessBoard = chessBoard;
-        validator = new MoveValidator(chessBoard);
+        this.cache = cache;
     }
 
+    /**
+     * Without cache only given move is checked, with cache move is looked up among cached legal moves of position.
+     */
     public Optional<ValidMove> createValidMove(RawMove move) {
-        if (validator.isCorrect(move)) {
-            if (validator.isLegalPromotion(move)) {
-                return Optional.of(createPromotion(move));
-            }
-            if (validator.isLegalSimpleMove(move)) {
-                return Optional.of(createSimpleMove(move));
-            }
-            if (validator.isLegalCastle(move)) {
-                return Optional.of(createCastle(move));
-            }
-            if (validator.isLegalEnPassantCapture(move)) {
-                return Optional.of(createEnPassantCapture(move));
+        if (!move.getStartPosition().isOnBoard() || !move.getEndPosition().isOnBoard()) {
+            return Optional.empty();
+        }
+        int from = Bitboards.square(move.getStartPosition());
+        int to = Bitboards.square(move.getEndPosition());
+        int legalMove = cache == null ? chessBoard.getGenerator().findLegalMove(from, to) : findCachedMove(from, to);
+        if (legalMove == ExecutableMoveGenerator.NO_MOVE) {
+            return Optional.empty();
+        }
+        if (PackedMove.flag(legalMove) != PackedMove.PROMOTION) {
+            return Optional.of(PackedMove.toExecutableMove(legalMove, chessBoard));
+        }
+        return Optional.of(createPromotion(move));
+    }
+
+    private int findCachedMove(int from, int to) {
+        for (int legalMove : cache.get(chessBoard)) {
+            if (PackedMove.from(legalMove) == from && PackedMove.to(legalMove) == to) {
+                return legalMove;
             }
         }
-        return Optional.empty();
+        return ExecutableMoveGenerator.NO_MOVE;
     }
 
     private ValidMove createPromotion(RawMove move) {
@@ -46,35 +64,4 @@ public class ValidMoveFactory {
         }
         return new UnTypedPromotion(move, chessBoard.getBoard(), chessBoard.getColor());
     }
-
-    private SimpleMove createSimpleMove(RawMove move) {
-        return new SimpleMove(move, chessBoard.getBoard());
-    }
-
-    private EnPassantCapture createEnPassantCapture(RawMove move) {
-        return new EnPassantCapture(move, chessBoard.getBoard());
-    }
-
-    private Castle createCastle(RawMove move) {
-        return new Castle(move, getRookMove(move), chessBoard.getBoard());
-    }
-
-    private RawMove getRookMove(RawMove move) {
-        CastleValidator.CastleType moveType = validator.moveToType(move).orElseThrow();
-        if (moveType.equals(CastleValidator.CastleType.SHORT)) {
-            return RawMove.of(Position.of(8, getStartRow()), Position.of(6, getStartRow()));
-        }
-        if (moveType.equals(CastleValidator.CastleType.LONG)) {
-            return RawMove.of(Position.of(1, getStartRow()), Position.of(4, getStartRow()));
-        }
-        throw new IllegalStateException("Should not try to create Castle when its not Castle");
-    }
-
-    private int getStartRow() {
-        if (chessBoard.getColor().isWhite()) {
-            return 1;
-        } else {
-            return 8;
-        }
-    }
 }
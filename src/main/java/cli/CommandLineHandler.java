@@ -1,10 +1,19 @@
 package cli;
 
+import chess.board.ChessBoard;
+import chess.board.features.LegalMoveCache;
 import chess.board.fields.Field;
+import chess.color.Color;
+import chess.formats.fen.FENParser;
+import chess.perft.Perft;
+import chess.perft.PerftCache;
+import chess.perft.PerftResult;
 import chess.formats.algebraic.AlgebraicUtility;
 import chess.formats.algebraic.LongAlgebraicParser;
 import data.model.DataModel;
+import data.model.diagrams.ArenaDiagram;
 import data.model.diagrams.Diagram;
+import data.model.diagrams.DiagramBoardCache;
 import chess.Position;
 import chess.moves.raw.RawMove;
 import data.file.FileManager;
@@ -20,11 +29,13 @@ import java.util.List;
 import java.util.Optional;
 
 public class CommandLineHandler {
+    private static final int PERFT_CACHE_MEGABYTES = 256;
     private final DataModel dataModel = new DataModel();
     private Diagram node = dataModel.getActualNode();
     private final FileManager fileManager = new FileManager();
     private final AlgebraicUtility algebraicUtility = AlgebraicUtility.getInstance();
     private final LongAlgebraicParser longAlgebraicParser = new LongAlgebraicParser();
+    private PerftCache perftCache;
 
     public void handle(String data) {
         if (data.isEmpty()) {
@@ -48,6 +59,9 @@ public class CommandLineHandler {
             case "help" -> printHelp();
             case "insert" -> insertPgn(input.poll());
             case "status" -> printStatus();
+            case "perft" -> perft(input);
+            case "transpositions" -> setMergeTranspositions(input.poll());
+            case "arena" -> printArena();
             case "quit" -> System.exit(0);
             default -> System.out.print("Unknown input");
         }
@@ -83,12 +97,34 @@ public class CommandLineHandler {
         if (node.getParent().isPresent()) {
             Diagram Temp = node;
             node = node.getParent().get();
-            node.getNextDiagrams().remove(Temp);
+            dataModel.delete(Temp);
         } else {
             System.out.print("Cant delete");
         }
     }
 
+    private void setMergeTranspositions(String mode) {
+        if (!"on".equals(mode) && !"off".equals(mode)) {
+            System.out.print("Usage: transpositions on|off");
+            return;
+        }
+        dataModel.setMergeTranspositions(mode.equals("on"));
+    }
+
+    /**
+     * Prints game counts of moves from current node, counted in arena of tree.
+     */
+    private void printArena() {
+        Optional<ArenaDiagram> diagram = dataModel.openArena();
+        if (diagram.isEmpty()) {
+            System.out.print("Cant open node in arena");
+            return;
+        }
+        System.out.println("Games: " + diagram.get().getGameCount());
+        diagram.get().getNextDiagrams()
+                .forEach(next -> System.out.print(next + " (" + next.getGameCount() + ") "));
+    }
+
     private void goBack(int id) {
         while (id > 0) {
             id--;
@@ -123,7 +159,7 @@ public class CommandLineHandler {
 
     private void jumpForward() {
         if (!node.getNextDiagrams().isEmpty()) {
-            node = node.getNextDiagrams().get(0);
+            node = node.getNextDiagramOnPath(0);
         } else {
             System.out.print("Cant jump forward");
         }
@@ -135,9 +171,10 @@ public class CommandLineHandler {
 
     private void display() {
         System.out.println();
+        ChessBoard chessBoard = node.getBoard();
         for (int i = 1; i <= 8; i++) {
             for (int j = 1; j <= 8; j++) {
-                Field field = node.getBoard().getField(Position.of(j, i));
+                Field field = chessBoard.getField(Position.of(j, i));
                 if (field.isEmpty()) {
                     System.out.print("00");
                 } else {
@@ -159,19 +196,7 @@ public class CommandLineHandler {
         try {
             Iterator<ParsedPGN> pgnParser = fileManager.loadPagedPGN(filename);
             new TimeLogRunnable(
-                    () -> {
-                        int size = 0;
-                        while (pgnParser.hasNext()) {
-                            ParsedPGN parsedPGN = pgnParser.next();
-                            if (parsedPGN.moves().isEmpty()) {
-                                Log.log().warn("Unable to parse game: " + parsedPGN.metadata().toString());
-                            } else {
-                                dataModel.insert(parsedPGN.moves().get(), parsedPGN.metadata());
-                                size++;
-                            }
-                        }
-                        return size;
-                    },
+                    () -> dataModel.insertAll(pgnParser),
                     "Inserting time: "
             ).apply();
         } catch (FileNotFoundException e) {
@@ -179,15 +204,62 @@ public class CommandLineHandler {
         }
     }
 
+    /**
+     * Runs divide perft from given FEN, or from current node when FEN is omitted.
+     * Cache is allocated on first run and cleared before each next one.
+     */
+    private void perft(ArrayDeque<String> input) {
+        int depth = input.isEmpty() ? -1 : parseDepth(input.poll());
+        if (depth < 0) {
+            System.out.print("Usage: perft <depth> [fen]");
+            return;
+        }
+        ChessBoard chessBoard;
+        if (input.isEmpty()) {
+            chessBoard = node.getBoard();
+        } else {
+            try {
+                chessBoard = FENParser.getInstance().parseFEN(String.join(" ", input));
+            } catch (IllegalArgumentException e) {
+                System.out.print("Invalid FEN: " + e.getMessage());
+                return;
+            }
+        }
+        if (chessBoard.getKingPosition(Color.white) == null || chessBoard.getKingPosition(Color.black) == null) {
+            System.out.print("Perft needs king of each color");
+            return;
+        }
+        if (perftCache == null) {
+            perftCache = new PerftCache(PERFT_CACHE_MEGABYTES);
+        } else {
+            perftCache.clear();
+        }
+        PerftResult result = new Perft(perftCache).divide(chessBoard, depth);
+        result.divide().forEach((move, nodes) -> System.out.println(move + ": " + nodes));
+        System.out.println(result);
+        System.out.println(perftCache);
+    }
+
+    /**
+     * @return depth or -1 when it is not a non-negative number
+     */
+    private int parseDepth(String depth) {
+        try {
+            return Integer.parseInt(depth);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
     private void printStatus() {
         System.out.println("Nodes: " + size(node.getRoot()));
         System.out.println("Games: " + dataModel.getGames().getGameData().size());
+        System.out.println("Merge transpositions: " + dataModel.isMergeTranspositions());
+        System.out.println(LegalMoveCache.getInstance());
+        System.out.println(DiagramBoardCache.getInstance());
     }
 
-    private int size(Diagram diagram) {
-        if (diagram.isLazy()) {
-            return 1;
-        }
-        return 1 + diagram.getNextDiagrams().stream().mapToInt(this::size).sum();
+    private long size(Diagram diagram) {
+        return diagram.subtree().parallel().count();
     }
 }
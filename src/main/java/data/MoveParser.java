@@ -1,9 +1,11 @@
 package data;
 
 import chess.board.ChessBoard;
+import chess.board.SearchBoard;
 import chess.moves.raw.RawMove;
-import chess.results.MoveResult;
-import chess.results.ValidMoveResult;
+import chess.moves.valid.ValidMove;
+import chess.moves.valid.executable.ExecutableMove;
+import chess.validation.ValidMoveFactory;
 
 import java.util.ArrayDeque;
 import java.util.List;
@@ -21,20 +23,23 @@ public class MoveParser {
     }
 
     public Optional<ArrayDeque<RawMove>> parseMoves(ChessBoard chessBoard, List<String> moves, BiFunction<String, ChessBoard, RawMove> parser) {
-        ArrayDeque<RawMove> result=new ArrayDeque<>();
+        ArrayDeque<RawMove> result = new ArrayDeque<>();
+        SearchBoard searchBoard = new SearchBoard(chessBoard);
         for (String move : moves) {
             if (isGameEnd(move)) {
                 break;
             }
-            RawMove rawMove = parser.apply(move, chessBoard);
-            MoveResult moveResult = chessBoard.makeMove(rawMove);
-            Optional<ValidMoveResult> validMoveResult = moveResult.validate();
-            if (validMoveResult.isPresent()) {
-                chessBoard = validMoveResult.get().getResult();
-                result.add(rawMove);
-            } else {
+            ChessBoard current = searchBoard.asChessBoard();
+            RawMove rawMove = parser.apply(move, current);
+            Optional<ValidMove> validMove = new ValidMoveFactory(current).createValidMove(rawMove);
+            if (validMove.isEmpty()) {
                 return Optional.empty();
             }
+            if (!validMove.get().isExecutable()) {
+                throw new IllegalArgumentException("No promotion info");
+            }
+            searchBoard.doMove((ExecutableMove) validMove.get());
+            result.add(rawMove);
         }
         return Optional.of(result);
     }
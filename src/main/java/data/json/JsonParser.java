@@ -11,6 +11,7 @@ import data.annotations.FieldAnnotation;
 import data.annotations.GraphicAnnotation;
 import data.json.pojo.*;
 import data.model.diagrams.Diagram;
+import data.model.diagrams.LazyMoves;
 import data.model.DiagramController;
 import data.model.metadata.GameData;
 import data.model.metadata.MetaData;
@@ -26,6 +27,9 @@ public class JsonParser {
     private record ToParse(Diagram parent, Node node) {
     }
 
+    private record ToLink(Diagram parent, Diagram placeholder, Node node) {
+    }
+
     public Diagram parseJson(String json) {
         Node jsonNode = parseJsonToPojo(json);
         Diagram root = new Diagram();
@@ -36,19 +40,43 @@ public class JsonParser {
         }
 
         ArrayDeque<ToParse> queue = new ArrayDeque<>();
+        List<ToLink> transpositions = new ArrayList<>();
         jsonNode.moves.forEach(node -> queue.add(new ToParse(root, node)));
 
         while (!queue.isEmpty()) {
             ToParse toParse = queue.pop();
             Diagram diagram = diagramController.makeMove(toParse.parent(), rawAlgebraicParser.rawAlgebraicToMoves(toParse.node().moveName), null).diagram();
+            if (toParse.node.transposition != null) {
+                transpositions.add(new ToLink(toParse.parent(), diagram, toParse.node));
+                continue;
+            }
             migrate(diagram, toParse.node);
             if (toParse.node.moves != null) {
                 toParse.node.moves.forEach(node -> queue.add(new ToParse(diagram, node)));
             }
         }
+        transpositions.forEach(toLink -> link(root, toLink));
         return root;
     }
 
+    /**
+     * Replaces placeholder with transposition, once diagram it transposes to is parsed.
+     */
+    private void link(Diagram root, ToLink toLink) {
+        Diagram target = root;
+        for (String move : toLink.node().transposition) {
+            target = target.getNextDiagram(rawAlgebraicParser.rawAlgebraicToMoves(move))
+                    .orElseThrow(() -> new IllegalArgumentException("Transposition to missing diagram: " + toLink.node().transposition));
+        }
+        Diagram parent = toLink.parent();
+        Diagram transposition = new Diagram(toLink.placeholder().getCreatingMove().orElseThrow(), parent.getBoard(), parent, target);
+        List<Diagram> nextDiagrams = parent.getNextDiagrams();
+        nextDiagrams.set(nextDiagrams.indexOf(toLink.placeholder()), transposition);
+        if (toLink.node().transposedMetadata != null) {
+            toLink.node().transposedMetadata.forEach(node -> transposition.addTransposedMetaData(toMetadata(node)));
+        }
+    }
+
     private Node parseJsonToPojo(String json) {
         try {
             return mapper.readValue(json, Node.class);
@@ -75,7 +103,7 @@ public class JsonParser {
                 .map(rawAlgebraicParser::rawAlgebraicToMoves)
                 .forEachOrdered(rawMoves::add);
 
-        diagram.setLazyMoves(rawMoves);
+        diagram.setLazyMoves(LazyMoves.of(rawMoves));
     }
 
 
@@ -10,6 +10,7 @@ import data.model.diagrams.Diagram;
 import data.model.metadata.GameData;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.Stack;
 
 public class PagedJsonFactory implements Iterator<String> {
@@ -55,6 +56,10 @@ public class PagedJsonFactory implements Iterator<String> {
                                 .orElse("\"" + diagram.getMoveName() + "\"")
                         )
                         .append(",");
+                if (diagram.getTransposition().isPresent()) {
+                    appendTransposition(result, diagram);
+                    return result.toString();
+                }
                 if (!diagram.getMetaData().isEmpty()) {
                     result.append("\"metadata\":")
                             .append(listJsonFactory.listToJson(diagram.getGameData(), gameDataJsonFactory::toJson))
@@ -87,4 +92,24 @@ public class PagedJsonFactory implements Iterator<String> {
         }
         return result.toString();
     }
+
+    /**
+     * Transposition is written with moves from root to diagram it transposes to, and games continuing through it.
+     */
+    private void appendTransposition(StringBuilder result, Diagram diagram) {
+        List<RawMove> target = diagram.getTransposition().orElseThrow().getPathFromRoot().stream()
+                .flatMap(d -> d.getCreatingMove().stream())
+                .toList();
+        List<GameData> transposedGameData = diagram.getTransposedMetaData().stream()
+                .filter(metaData -> metaData instanceof GameData)
+                .map(metaData -> (GameData) metaData)
+                .toList();
+        result.append("\"transposition\":")
+                .append(listJsonFactory.listToJson(target, rawMoveJsonFactory::toJson));
+        if (!transposedGameData.isEmpty()) {
+            result.append(",\"transposedMetadata\":")
+                    .append(listJsonFactory.listToJson(transposedGameData, gameDataJsonFactory::toJson));
+        }
+        result.append('}');
+    }
 }
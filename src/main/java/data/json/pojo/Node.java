@@ -8,4 +8,6 @@ public class Node {
     public List<Node> moves;
     public List<String> movesList;
     public List<JsonGameData> metadata;
+    public List<String> transposition;
+    public List<JsonGameData> transposedMetadata;
 }
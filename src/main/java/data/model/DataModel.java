@@ -1,18 +1,28 @@
 package data.model;
 
+import chess.board.features.LegalMoveCache;
 import chess.moves.raw.RawMove;
+import data.model.diagrams.ArenaDiagram;
 import data.model.diagrams.Diagram;
+import data.model.diagrams.DiagramArena;
+import data.model.diagrams.FENDiagram;
 import data.model.games.GamesRepository;
+import data.model.games.GamesUpdateEvent;
 import data.model.metadata.MetaData;
+import data.pgn.ParsedPGN;
 import log.Log;
 
 import java.util.*;
 
 public class DataModel {
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 12;
     private Diagram actualNode;
     private final GamesRepository games = new GamesRepository();
     private final TreeDataModel treeDataModel = new TreeDataModel(this);
-    private final DiagramController diagramController = new DiagramController();
+    private final TreeDataModel arenaTreeModel = new TreeDataModel(this, this::getArenaRoot);
+    private DiagramArena arena;
+    private DiagramController diagramController = new DiagramController(false, LegalMoveCache.getInstance());
+    private boolean mergeTranspositions = false;
     private PromotionTypeProvider promotionTypeProvider;
 
     public DataModel() {
@@ -23,6 +33,9 @@ public class DataModel {
         Log.log().info("Make move: " + move);
         DiagramController.Result result = diagramController.makeMove(actualNode, move, promotionTypeProvider);
         if (result.diagram() != actualNode) {
+            if (arena != null) {
+                arena.addChild(findArenaNode(actualNode), result.diagram().getCreatingMove().orElseThrow());
+            }
             actualNode = result.diagram();
             treeDataModel.notifyListenersOnInsert(actualNode);
         }
@@ -32,15 +45,105 @@ public class DataModel {
     public void insert(ArrayDeque<RawMove> moves, MetaData metaData) {
         Log.log().info("Insert: " + metaData);
         Diagram actualRoot = actualNode.getRoot();
+        List<RawMove> game = arena == null ? null : List.copyOf(moves);
         games.update(diagramController.insert(actualRoot, moves, metaData));
+        if (game != null) {
+            arena.insert(game);
+        }
+    }
+
+    /**
+     * Inserts games into tree of actual node in chunks. Games of chunk are sorted by moves, so games with common first
+     * moves are inserted one after another and share walk through the tree, see {@link DiagramController#insertAll}.
+     * Diagrams of games are applied to games once per chunk. Games which could not be parsed are skipped.
+     *
+     * @return number of inserted games
+     */
+    public int insertAll(Iterator<ParsedPGN> parsedPGNs, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        Diagram actualRoot = actualNode.getRoot();
+        List<ArrayDeque<RawMove>> moves = new ArrayList<>(chunkSize);
+        List<MetaData> metaData = new ArrayList<>(chunkSize);
+        int size = 0;
+        while (parsedPGNs.hasNext()) {
+            ParsedPGN parsedPGN = parsedPGNs.next();
+            if (parsedPGN.moves().isEmpty()) {
+                Log.log().warn("Unable to parse game: " + parsedPGN.metadata());
+                continue;
+            }
+            moves.add(parsedPGN.moves().get());
+            metaData.add(parsedPGN.metadata());
+            size++;
+            if (moves.size() == chunkSize) {
+                insertChunk(actualRoot, moves, metaData);
+            }
+        }
+        insertChunk(actualRoot, moves, metaData);
+        return size;
+    }
+
+    private void insertChunk(Diagram root, List<ArrayDeque<RawMove>> moves, List<MetaData> metaData) {
+        if (moves.isEmpty()) {
+            return;
+        }
+        List<List<RawMove>> arenaGames = new ArrayList<>();
+        if (arena != null) {
+            moves.forEach(game -> arenaGames.add(List.copyOf(game)));
+        }
+        GamesUpdateEvent event = GamesUpdateEvent.create();
+        diagramController.insertAll(root, moves, metaData, event);
+        games.update(event);
+        for (List<RawMove> game : arenaGames) {
+            arena.insert(game);
+        }
+        moves.clear();
+        metaData.clear();
+    }
+
+    public int insertAll(Iterator<ParsedPGN> parsedPGNs) {
+        return insertAll(parsedPGNs, DEFAULT_CHUNK_SIZE);
     }
 
     public Optional<Diagram> getLast(Diagram diagram) {
-        return switch (diagram.getNextDiagrams().size()) {
-            case 0 -> Optional.of(diagram);
-            case 1 -> getLast(diagram.getNextDiagrams().get(0));
-            default -> Optional.empty();
-        };
+        while (diagram.getNextDiagrams().size() == 1) {
+            diagram = diagram.getNextDiagramOnPath(0);
+        }
+        if (diagram.getNextDiagrams().isEmpty()) {
+            return Optional.of(diagram);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Removes diagram with its subtree from tree and from position index of merged transpositions,
+     * so games are not linked to removed diagrams. Deleting view removes diagram it stands for.
+     */
+    public void delete(Diagram diagram) {
+        Diagram parent = diagram.getParent().orElseThrow(() -> new IllegalArgumentException("Root cannot be deleted"));
+        int index = parent.indexOfNextDiagram(diagram);
+        if (index < 0) {
+            throw new IllegalArgumentException("Diagram is not in tree: " + diagram);
+        }
+        diagramController.delete(parent.getNextDiagrams().get(index));
+        parent.getNextDiagrams().remove(index);
+        arena = null;
+        if (actualNode.getPathFromRoot().contains(diagram)) {
+            actualNode = parent;
+        }
+    }
+
+    /**
+     * @param mergeTranspositions if true, games inserted later share diagrams of positions reached by other move order
+     */
+    public void setMergeTranspositions(boolean mergeTranspositions) {
+        this.mergeTranspositions = mergeTranspositions;
+        diagramController = new DiagramController(mergeTranspositions, LegalMoveCache.getInstance());
+    }
+
+    public boolean isMergeTranspositions() {
+        return mergeTranspositions;
     }
 
     public void setActualNode(Diagram actualNode) {
@@ -49,6 +152,7 @@ public class DataModel {
 
     public void setNewTree(Diagram tree) {
         this.actualNode = tree;
+        this.arena = null;
         games.setNewTree(tree.getRoot());
     }
 
@@ -64,6 +168,56 @@ public class DataModel {
         return treeDataModel;
     }
 
+    /**
+     * Arena of tree is copied from tree when it is opened first time, later moves and games added to tree are added
+     * to arena too. Arena is copied again only after tree is replaced or diagram is deleted, as nodes are never removed
+     * from arena. Annotations and best move marks are copied with tree, later they are kept separately.
+     *
+     * @return view of actual node in arena of tree, empty when tree starts from FEN
+     */
+    public Optional<ArenaDiagram> openArena() {
+        if (actualNode.getRoot() instanceof FENDiagram) {
+            return Optional.empty();
+        }
+        DiagramArena actualArena = getArena();
+        return Optional.of(actualArena.getDiagram(findArenaNode(actualNode)));
+    }
+
+    /**
+     * @return model browsing arena of tree, see {@link #openArena()}
+     */
+    public TreeDataModel arenaAsTree() {
+        return arenaTreeModel;
+    }
+
+    private ArenaDiagram getArenaRoot() {
+        if (actualNode.getRoot() instanceof FENDiagram) {
+            return null;
+        }
+        return getArena().getDiagram(DiagramArena.ROOT);
+    }
+
+    private DiagramArena getArena() {
+        if (arena == null) {
+            arena = DiagramArena.of(actualNode.getRoot());
+        }
+        return arena;
+    }
+
+    /**
+     * Follows moves of path of diagram, so diagrams reached through transposition are found in their move order.
+     */
+    private int findArenaNode(Diagram diagram) {
+        int node = DiagramArena.ROOT;
+        for (Diagram next : diagram.getPathArray()) {
+            Optional<RawMove> move = next.getCreatingMove();
+            if (move.isPresent()) {
+                node = arena.addChild(node, move.get());
+            }
+        }
+        return node;
+    }
+
     public GamesRepository getGames() {
         return games;
     }
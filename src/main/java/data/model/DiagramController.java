@@ -1,27 +1,60 @@
 package data.model;
 
 import chess.board.ChessBoard;
+import chess.board.SearchBoard;
+import chess.board.features.LegalMoveCache;
+import chess.board.lowlevel.Bitboards;
+import chess.board.lowlevel.Board;
+import chess.moves.packed.PackedMove;
 import chess.moves.raw.RawMove;
 import chess.results.MoveResult;
 import chess.results.ValidMoveResult;
 import data.model.diagrams.Diagram;
+import data.model.diagrams.LazyMoves;
 import data.model.games.GamesUpdateEvent;
 import data.model.metadata.GameData;
 import data.model.metadata.MetaData;
 import log.Log;
 
 import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.ObjLongConsumer;
 
 public class DiagramController {
+    private final boolean mergeTranspositions;
+    private final LegalMoveCache legalMoveCache;
+    private final PositionIndex positions = new PositionIndex();
+    private Diagram indexedRoot;
 
     public record Result(Diagram diagram, GamesUpdateEvent event) {
     }
 
+    public DiagramController() {
+        this(false);
+    }
+
+    public DiagramController(boolean mergeTranspositions) {
+        this(mergeTranspositions, null);
+    }
+
+    /**
+     * @param mergeTranspositions if true, insert links diagram reaching already stored position at the same depth
+     *                            to existing diagram instead of creating new subtree, so tree becomes a DAG
+     * @param legalMoveCache      cache validating moves made with {@link #makeMove}, can be null,
+     *                            inserted games are always validated without cache
+     */
+    public DiagramController(boolean mergeTranspositions, LegalMoveCache legalMoveCache) {
+        this.mergeTranspositions = mergeTranspositions;
+        this.legalMoveCache = legalMoveCache;
+    }
+
     public Result makeMove(Diagram diagram, RawMove move, PromotionTypeProvider typeProvider) {
         ChessBoard chessBoard = diagram.getBoard();
-        MoveResult moveResult = chessBoard.makeMove(move);
+        MoveResult moveResult = legalMoveCache == null ? chessBoard.makeMove(move) : chessBoard.makeMove(move, legalMoveCache);
         Optional<ValidMoveResult> validMoveResult = moveResult.validate(typeProvider);
 
         if (validMoveResult.isEmpty()) {
@@ -30,112 +63,360 @@ public class DiagramController {
         }
         GamesUpdateEvent gamesUpdateEvent;
         if (diagram.isLazy()) {
-            gamesUpdateEvent = expand(diagram);
+            gamesUpdateEvent = GamesUpdateEvent.create();
+            expand(diagram, chessBoard, gamesUpdateEvent);
         } else {
             gamesUpdateEvent = GamesUpdateEvent.empty();
         }
 
-        for (Diagram diagram1 : diagram.getNextDiagrams()) {
-            if (diagram1.getCreatingMove().isPresent() && diagram1.getCreatingMove().get().equals(move)) {
-                return new Result(diagram1, gamesUpdateEvent);
-            }
+        Optional<Diagram> existing = diagram.getNextDiagram(move);
+        if (existing.isPresent()) {
+            return new Result(onPath(existing.get(), diagram), gamesUpdateEvent);
         }
 
-        Diagram nextDiagram = new Diagram(move, chessBoard, diagram);
-        diagram.getNextDiagrams().add(nextDiagram);
-        return new Result(nextDiagram, gamesUpdateEvent);
+        Diagram owner = diagram.getTransposition().orElse(diagram);
+        Diagram nextDiagram = new Diagram(move, chessBoard, owner);
+        owner.getNextDiagrams().add(nextDiagram);
+        if (mergeTranspositions && indexedRoot == owner.getRoot()) {
+            positions.putIfAbsent(validMoveResult.get().getResult().zobrist(), nextDiagram);
+        }
+        return new Result(onPath(nextDiagram, diagram), gamesUpdateEvent);
+    }
+
+    /**
+     * @return next diagram as view with given parent when parent is transposition, so move history is kept
+     */
+    private Diagram onPath(Diagram next, Diagram parent) {
+        return parent.getTransposition().isPresent() ? next.reachedThrough(parent) : next;
     }
 
     public GamesUpdateEvent insert(Diagram tree, ArrayDeque<RawMove> moves, MetaData metaData) {
-        if (moves.isEmpty()) {
-            tree.getMetaData().add(metaData);
-            return GamesUpdateEvent.of(metaData, tree);
+        GamesUpdateEvent event = GamesUpdateEvent.create();
+        insert(tree, moves, metaData, event);
+        return event;
+    }
+
+    /**
+     * @param moves legal moves of game, they are applied without validation
+     * @param event mutable event collecting diagrams of moved and inserted games
+     */
+    public void insert(Diagram tree, ArrayDeque<RawMove> moves, MetaData metaData, GamesUpdateEvent event) {
+        if (mergeTranspositions) {
+            index(tree.getRoot());
+        }
+        insertMoves(tree, tree.getBoard(), LazyMoves.of(moves), metaData, event, null);
+    }
+
+    /**
+     * Inserts games sorted by moves, each game starts from the deepest diagram visited by previous game on their
+     * common first moves instead of from tree. Games with equal moves keep their order.
+     *
+     * @param moves    legal moves of games, they are applied without validation
+     * @param metaData metadata of games, in order of moves
+     * @param event    mutable event collecting diagrams of moved and inserted games
+     */
+    public void insertAll(Diagram tree, List<ArrayDeque<RawMove>> moves, List<MetaData> metaData, GamesUpdateEvent event) {
+        if (moves.size() != metaData.size()) {
+            throw new IllegalArgumentException("Games have " + moves.size() + " move lists and " + metaData.size() + " metadata");
+        }
+        if (mergeTranspositions) {
+            index(tree.getRoot());
+        }
+        List<LazyMoves> games = moves.stream().map(LazyMoves::of).toList();
+        Integer[] order = new Integer[games.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(games::get));
+
+        Path path = new Path();
+        path.push(tree, tree.getBoard());
+        LazyMoves previous = null;
+        for (int index : order) {
+            LazyMoves game = games.get(index);
+            int shared = previous == null ? 0 : Math.min(previous.mismatch(game), path.size() - 1);
+            path.truncate(shared + 1);
+            path.enterTranspositions(shared, metaData.get(index), event);
+            LazyMoves remaining = game.copy();
+            remaining.skip(shared);
+            insertMoves(path.getDiagram(shared), path.getBoard(shared), remaining, metaData.get(index), event, path);
+            previous = game;
         }
+    }
+
+    /**
+     * Diagrams and their boards visited by cursor of last inserted game, indexed by number of moves from tree.
+     * Index of nearest transposition is kept for each diagram, so game starting inside path can enter them.
+     */
+    private static class Path {
+        private Diagram[] diagrams = new Diagram[64];
+        private ChessBoard[] boards = new ChessBoard[64];
+        private int[] transpositions = new int[64];
+        private int size;
 
-        if (tree.isLazy()) {
-            if (tree.getLazyMovesList().isEmpty()) {
-                tree.setLazyMoves(moves);
-                tree.getMetaData().add(metaData);
-                return GamesUpdateEvent.of(metaData, tree);
+        void push(Diagram diagram, ChessBoard chessBoard) {
+            if (size == diagrams.length) {
+                diagrams = Arrays.copyOf(diagrams, size * 2);
+                boards = Arrays.copyOf(boards, size * 2);
+                transpositions = Arrays.copyOf(transpositions, size * 2);
+            }
+            diagrams[size] = diagram;
+            boards[size] = chessBoard;
+            if (diagram.getTransposition().isPresent()) {
+                transpositions[size] = size;
+            } else {
+                transpositions[size] = size == 0 ? -1 : transpositions[size - 1];
             }
+            size++;
+        }
 
-            if (moves.stream().toList().equals(tree.getLazyMovesList())) {
-                tree.getMetaData().add(metaData);
-                return GamesUpdateEvent.of(metaData, tree);
+        /**
+         * Records transpositions of path up to given index as entered by game, in order of moves.
+         */
+        void enterTranspositions(int index, MetaData metaData, GamesUpdateEvent event) {
+            ArrayDeque<Diagram> entered = new ArrayDeque<>();
+            for (int i = transpositions[index]; i >= 0; i = i == 0 ? -1 : transpositions[i - 1]) {
+                entered.push(diagrams[i]);
             }
+            entered.forEach(transposition -> enter(transposition, metaData, event));
+        }
+
+        void truncate(int size) {
+            this.size = size;
         }
 
-        RawMove move = moves.poll();
+        int size() {
+            return size;
+        }
 
-        if (tree.isLazy() && tree.getLazyMovesList().get(0).equals(move)) {
-            GamesUpdateEvent event = expand(tree);
-            Diagram diagram = tree.getNextDiagrams().get(0);
-            return event.join(insert(diagram, moves, metaData));
+        Diagram getDiagram(int index) {
+            return diagrams[index];
         }
 
-        if (!tree.isLazy()) {
-            for (Diagram nextDiagram : tree.getNextDiagrams()) {
-                if (nextDiagram.getCreatingMove().isPresent()) {
-                    if (nextDiagram.getCreatingMove().get().equals(move)) {
-                        return insert(nextDiagram, moves, metaData);
-                    }
+        ChessBoard getBoard(int index) {
+            return boards[index];
+        }
+    }
+
+    /**
+     * Walks down the tree with cursor diagram and its board, so board of each visited diagram is computed
+     * with one move from board of its parent. Remaining moves become lazy moves of diagram where game leaves the tree.
+     *
+     * @param path visited diagrams are pushed to it, can be null
+     */
+    private void insertMoves(Diagram tree, ChessBoard chessBoard, LazyMoves moves, MetaData metaData, GamesUpdateEvent event, Path path) {
+        Diagram cursor = tree;
+        ChessBoard cursorBoard = chessBoard;
+        while (!moves.isEmpty()) {
+            if (cursor.isLazy()) {
+                if (cursor.getLazyMoves().isEmpty()) {
+                    cursor.setLazyMoves(moves);
+                    cursor.getMetaData().add(metaData);
+                    event.put(metaData, cursor);
+                    return;
                 }
+
+                if (moves.matches(cursor.getLazyMoves())) {
+                    cursor.getMetaData().add(metaData);
+                    event.put(metaData, cursor);
+                    return;
+                }
+            }
+
+            RawMove move = moves.poll();
+
+            if (cursor.isLazy() && cursor.getLazyMoves().startsWith(move)) {
+                expand(cursor, cursorBoard, event);
+                cursor = cursor.getNextDiagrams().get(0);
+                cursorBoard = applyMove(cursorBoard, move);
+                enter(cursor, metaData, event);
+                if (path != null) {
+                    path.push(cursor, cursorBoard);
+                }
+                continue;
+            }
+
+            Optional<Diagram> next = cursor.getNextDiagram(move);
+            if (next.isPresent()) {
+                cursor = next.get();
+                cursorBoard = applyMove(cursorBoard, move);
+                enter(cursor, metaData, event);
+                if (path != null) {
+                    path.push(cursor, cursorBoard);
+                }
+                continue;
+            }
+
+            Diagram diagram = createDiagram(cursor, cursorBoard, move, moves);
+            if (cursor.isLazy()) {
+                expand(cursor, cursorBoard, event);
+            }
+            cursor.getNextDiagrams().add(diagram);
+            if (diagram.getTransposition().isEmpty()) {
+                diagram.getMetaData().add(metaData);
+                event.put(metaData, diagram);
+                return;
+            }
+            cursor = diagram;
+            cursorBoard = applyMove(cursorBoard, move);
+            enter(cursor, metaData, event);
+            if (path != null) {
+                path.push(cursor, cursorBoard);
             }
         }
+        cursor.getMetaData().add(metaData);
+        event.put(metaData, cursor);
+    }
 
-        Diagram diagram = new Diagram(
-                move,
-                tree.getBoard(),
-                tree,
-                moves
-        );
-        GamesUpdateEvent event;
-        if (tree.isLazy()) {
-            event = expand(tree);
-        } else {
-            event = GamesUpdateEvent.empty();
+    /**
+     * Records that game continues through transposition, so path of game keeps its own move order.
+     */
+    private static void enter(Diagram diagram, MetaData metaData, GamesUpdateEvent event) {
+        if (diagram.getTransposition().isPresent()) {
+            diagram.addTransposedMetaData(metaData);
+            event.addTransposition(metaData, diagram);
         }
-        tree.getNextDiagrams().add(diagram);
-        diagram.getMetaData().add(metaData);
+    }
 
-        return event.join(GamesUpdateEvent.of(metaData, diagram));
+    /**
+     * Applies move of inserted game without legality check, moves are validated when games are parsed,
+     * see {@link data.MoveParser}. Only moving piece is checked, so corrupted lazy moves are not applied.
+     */
+    private static ChessBoard applyMove(ChessBoard chessBoard, RawMove move) {
+        Board board = chessBoard.getBoard();
+        if ((board.getOccupancy(chessBoard.getColor()) & Bitboards.bit(move.getStartPosition())) == 0) {
+            throw new IllegalStateException("No piece of side to move on " + move.getStartPosition());
+        }
+        return chessBoard.makeMove(PackedMove.toExecutableMove(PackedMove.of(move, board), chessBoard));
     }
 
     public GamesUpdateEvent expand(Diagram diagram) {
-        RawMove move = diagram.getLazyMovesDeque().poll();
+        GamesUpdateEvent event = GamesUpdateEvent.create();
+        expand(diagram, diagram.getBoard(), event);
+        return event;
+    }
+
+    /**
+     * @param chessBoard board of diagram
+     */
+    private void expand(Diagram diagram, ChessBoard chessBoard, GamesUpdateEvent event) {
+        LazyMoves remainingMoves = diagram.getLazyMoves();
+        RawMove move = remainingMoves.poll();
         if (move == null) {
             diagram.expandNextDiagrams();
             diagram.setLazyMoves(null);
-            return GamesUpdateEvent.empty();
+            return;
         }
 
-        ChessBoard chessBoard = diagram.getBoard();
-        Optional<ValidMoveResult> validMoveResult = chessBoard.makeMove(move).validate();
-        if (validMoveResult.isEmpty()) {
-            throw new IllegalStateException();
-        }
-
-        Diagram lazy = new Diagram(
-                move,
-                chessBoard,
-                diagram,
-                diagram.getLazyMovesDeque()
-        );
+        ChessBoard nextBoard = applyMove(chessBoard, move);
+        Diagram lazy = createDiagram(diagram, chessBoard, move, remainingMoves);
         diagram.expandNextDiagrams();
         diagram.setLazyMoves(null);
         diagram.getNextDiagrams().add(lazy);
-        return moveMetaData(diagram, lazy);
+        if (lazy.getTransposition().isPresent()) {
+            List<MetaData> gameData = continuingMetaData(diagram);
+            diagram.getMetaData().removeAll(gameData);
+            gameData.forEach(metaData -> {
+                enter(lazy, metaData, event);
+                insertMoves(lazy, nextBoard, remainingMoves.copy(), metaData, event, null);
+            });
+            return;
+        }
+        moveMetaData(diagram, lazy, event);
     }
 
-    private GamesUpdateEvent moveMetaData(Diagram from, Diagram to) {
-        int depth = from.depth();
-        List<MetaData> gameData = from.getMetaData()
+    private void moveMetaData(Diagram from, Diagram to, GamesUpdateEvent event) {
+        List<MetaData> gameData = continuingMetaData(from);
+        event.putAll(gameData, to);
+        to.getMetaData().addAll(gameData);
+        from.getMetaData().removeAll(gameData);
+    }
+
+    /**
+     * @return metadata of diagram without games ending on it
+     */
+    private List<MetaData> continuingMetaData(Diagram diagram) {
+        int depth = diagram.depth();
+        return diagram.getMetaData()
                 .stream()
                 .filter(metaData -> !(metaData instanceof GameData) || ((GameData) metaData).length() != depth)
                 .toList();
-        GamesUpdateEvent event = GamesUpdateEvent.of(gameData, to);
-        to.getMetaData().addAll(gameData);
-        from.getMetaData().removeAll(gameData);
-        return event;
+    }
+
+    /**
+     * Creates lazy diagram after move, or transposition to diagram with the same position on the same depth
+     * when transpositions are merged. Only diagrams on the same depth are merged, so games keep their length
+     * and no cycle can be created. Diagram created after transposition is child of diagram it transposes to.
+     * Positions are found by Zobrist key and compared, so colliding keys do not merge different positions.
+     */
+    private Diagram createDiagram(Diagram cursor, ChessBoard parentBoard, RawMove move, LazyMoves moves) {
+        Diagram parent = cursor.getTransposition().orElse(cursor);
+        if (!mergeTranspositions) {
+            return new Diagram(move, parentBoard, parent, moves);
+        }
+        ChessBoard nextBoard = applyMove(parentBoard, move);
+        Diagram existing = positions.get(nextBoard.zobrist());
+        if (existing != null && existing.depth() == parent.depth() + 1 && existing.getBoard().equals(nextBoard)) {
+            return new Diagram(move, parentBoard, parent, existing);
+        }
+        Diagram diagram = new Diagram(move, parentBoard, parent, moves);
+        positions.putIfAbsent(nextBoard.zobrist(), diagram);
+        return diagram;
+    }
+
+    /**
+     * Removes positions of diagram and its subtree from index before diagram is removed from tree,
+     * so games are not linked to removed diagrams.
+     */
+    public void delete(Diagram diagram) {
+        if (!mergeTranspositions || indexedRoot != diagram.getRoot() || diagram.getTransposition().isPresent()) {
+            return;
+        }
+        SearchBoard searchBoard = new SearchBoard(diagram.getParent().orElseThrow().getBoard());
+        walk(List.of(diagram).iterator(), searchBoard, (removed, key) -> positions.remove(key, removed));
+    }
+
+    /**
+     * Indexes diagrams of tree when diagrams of another tree are inserted.
+     */
+    private void index(Diagram root) {
+        if (root == indexedRoot) {
+            return;
+        }
+        positions.clear();
+        indexedRoot = root;
+        SearchBoard searchBoard = new SearchBoard(root.getBoard());
+        positions.putIfAbsent(searchBoard.zobrist(), root);
+        walk(root.getNextDiagrams().iterator(), searchBoard, (diagram, key) -> positions.putIfAbsent(key, diagram));
+    }
+
+    /**
+     * Visits given diagrams and their subtrees with Zobrist keys of their positions, computed by making and unmaking
+     * moves on search board of their parent, so moves are not validated again. Transpositions are skipped,
+     * as their positions belong to diagrams they transpose to.
+     */
+    private static void walk(Iterator<Diagram> diagrams, SearchBoard searchBoard, ObjLongConsumer<Diagram> consumer) {
+        ArrayDeque<Iterator<Diagram>> pending = new ArrayDeque<>(List.of(diagrams));
+        while (!pending.isEmpty()) {
+            Iterator<Diagram> iterator = pending.peek();
+            if (!iterator.hasNext()) {
+                pending.pop();
+                if (!pending.isEmpty()) {
+                    searchBoard.undoMove();
+                }
+                continue;
+            }
+            Diagram diagram = iterator.next();
+            if (diagram.getTransposition().isPresent()) {
+                continue;
+            }
+            searchBoard.doMove(PackedMove.of(diagram.getCreatingMove().orElseThrow(), searchBoard.getBoard()));
+            consumer.accept(diagram, searchBoard.zobrist());
+            if (diagram.isLazy()) {
+                searchBoard.undoMove();
+            } else {
+                pending.push(diagram.getNextDiagrams().iterator());
+            }
+        }
     }
 }
@@ -0,0 +1,109 @@
+package data.model;
+
+import data.model.diagrams.Diagram;
+
+import java.util.Arrays;
+
+/**
+ * Diagrams of merged transpositions keyed by Zobrist key of their position, in open addressed table of primitive
+ * keys and diagrams. Zobrist keys are random, so their bits are used as hash directly. Slot is empty when its
+ * diagram is null, removal shifts following entries back, so lookups never stop on removed entry.
+ */
+class PositionIndex {
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private Diagram[] diagrams = new Diagram[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * @return diagram of position or null
+     */
+    Diagram get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; diagrams[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return diagrams[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Keeps first diagram of position, as it is the one other diagrams transpose to.
+     */
+    void putIfAbsent(long key, Diagram diagram) {
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        for (; diagrams[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return;
+            }
+        }
+        keys[slot] = key;
+        diagrams[slot] = diagram;
+        size++;
+    }
+
+    /**
+     * Removes position only when it is indexed with given diagram.
+     */
+    void remove(long key, Diagram diagram) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        for (; diagrams[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                if (diagrams[slot] == diagram) {
+                    shiftBack(slot);
+                    size--;
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Moves entries following removed slot into it until one is found which is already in its place.
+     */
+    private void shiftBack(int slot) {
+        int mask = keys.length - 1;
+        int empty = slot;
+        for (int next = (slot + 1) & mask; diagrams[next] != null; next = (next + 1) & mask) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - empty) & mask)) {
+                keys[empty] = keys[next];
+                diagrams[empty] = diagrams[next];
+                empty = next;
+            }
+        }
+        diagrams[empty] = null;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        Diagram[] oldDiagrams = diagrams;
+        keys = new long[oldKeys.length * 2];
+        diagrams = new Diagram[oldKeys.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldDiagrams[i] != null) {
+                putIfAbsent(oldKeys[i], oldDiagrams[i]);
+            }
+        }
+    }
+
+    void clear() {
+        Arrays.fill(diagrams, null);
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static int hash(long key) {
+        return Long.hashCode(key);
+    }
+}
@@ -1,44 +1,56 @@
 package data.model;
 
 import data.model.diagrams.Diagram;
+import data.model.diagrams.DiagramNode;
 
 import javax.swing.event.TreeModelEvent;
 import javax.swing.event.TreeModelListener;
 import javax.swing.tree.TreeModel;
 import javax.swing.tree.TreePath;
 import java.util.ArrayList;
+import java.util.function.Supplier;
 
 public class TreeDataModel implements TreeModel {
     private final DataModel dataModel;
+    private final Supplier<? extends DiagramNode> root;
     private final ArrayList<TreeModelListener> treeModelListeners = new ArrayList<>();
 
     public TreeDataModel(DataModel dataModel) {
+        this(dataModel, () -> dataModel.getActualNode().getRoot());
+    }
+
+    /**
+     * @param root supplier of root of browsed tree, which may be null when there is no tree to browse
+     */
+    TreeDataModel(DataModel dataModel, Supplier<? extends DiagramNode> root) {
         this.dataModel = dataModel;
+        this.root = root;
     }
 
     @Override
     public Object getRoot() {
-        return dataModel.getActualNode().getRoot();
+        return root.get();
     }
 
     @Override
     public Object getChild(Object parent, int index) {
-        return ((Diagram) parent).getNextDiagrams().get(index);
+        return ((DiagramNode) parent).getNextDiagramOnPath(index);
     }
 
     @Override
     public int getChildCount(Object parent) {
-        Diagram diagram = (Diagram) parent;
-        dataModel.expandIfLazy(diagram);
-        return diagram.getNextDiagrams().size();
+        if (parent instanceof Diagram diagram) {
+            dataModel.expandIfLazy(diagram);
+        }
+        return ((DiagramNode) parent).getNextDiagrams().size();
     }
 
     @Override
     public boolean isLeaf(Object node) {
-        if (((Diagram) node).isLazy()) {
+        if (((DiagramNode) node).isLazy()) {
             return false;
         }
-        return ((Diagram) node).getNextDiagrams().isEmpty();
+        return ((DiagramNode) node).getNextDiagrams().isEmpty();
     }
 
     @Override
@@ -48,7 +60,7 @@ public class TreeDataModel implements TreeModel {
 
     @Override
     public int getIndexOfChild(Object parent, Object child) {
-        return ((Diagram) parent).getNextDiagrams().indexOf((Diagram) child);
+        return ((DiagramNode) parent).indexOfNextDiagram((DiagramNode) child);
     }
 
     @Override
@@ -61,8 +73,8 @@ public class TreeDataModel implements TreeModel {
         treeModelListeners.remove(l);
     }
 
-    public TreePath getTreePathTo(Diagram diagram) {
-        return new TreePath(diagram.getPathFromRoot().toArray());
+    public TreePath getTreePathTo(DiagramNode diagram) {
+        return new TreePath(diagram.getPathArray());
     }
 
     public void notifyListenersOnInsert(Diagram newDiagram) {
@@ -71,7 +83,7 @@ public class TreeDataModel implements TreeModel {
         int[] childrenArray = new int[1];
         Object[] objects = new Object[1];
         objects[0] = newDiagram;
-        childrenArray[0] = parent.getNextDiagrams().indexOf(newDiagram);
+        childrenArray[0] = parent.indexOfNextDiagram(newDiagram);
 
         TreeModelEvent event = new TreeModelEvent(this,
                 getTreePathTo(parent),
@@ -83,7 +95,7 @@ public class TreeDataModel implements TreeModel {
         }
     }
 
-    public void notifyListenersOnNewTree(Diagram newDiagram) {
+    public void notifyListenersOnNewTree(DiagramNode newDiagram) {
         TreeModelEvent event = new TreeModelEvent(this,
                 getTreePathTo(newDiagram),
                 null,
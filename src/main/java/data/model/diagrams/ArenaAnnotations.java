@@ -0,0 +1,79 @@
+package data.model.diagrams;
+
+import data.annotations.Annotations;
+
+/**
+ * Annotations of {@link DiagramArena} nodes keyed by node id, in open addressed table of primitive keys
+ * and annotations, so only annotated nodes take space. Slot is empty when its annotations are null.
+ * Nodes are never removed from arena, so entries are never removed either.
+ */
+class ArenaAnnotations {
+    private static final int INITIAL_CAPACITY = 1 << 4;
+    private int[] nodes = new int[INITIAL_CAPACITY];
+    private Annotations[] annotations = new Annotations[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * @return annotations of node or null
+     */
+    Annotations get(int node) {
+        int mask = nodes.length - 1;
+        for (int slot = hash(node) & mask; annotations[slot] != null; slot = (slot + 1) & mask) {
+            if (nodes[slot] == node) {
+                return annotations[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return annotations of node, created when node has none yet
+     */
+    Annotations getOrCreate(int node) {
+        Annotations result = get(node);
+        if (result == null) {
+            result = new Annotations();
+            put(node, result);
+        }
+        return result;
+    }
+
+    private void put(int node, Annotations nodeAnnotations) {
+        if ((size + 1) * 2 > nodes.length) {
+            grow();
+        }
+        int mask = nodes.length - 1;
+        int slot = hash(node) & mask;
+        while (annotations[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        nodes[slot] = node;
+        annotations[slot] = nodeAnnotations;
+        size++;
+    }
+
+    private void grow() {
+        int[] oldNodes = nodes;
+        Annotations[] oldAnnotations = annotations;
+        nodes = new int[oldNodes.length * 2];
+        annotations = new Annotations[oldNodes.length * 2];
+        size = 0;
+        for (int i = 0; i < oldNodes.length; i++) {
+            if (oldAnnotations[i] != null) {
+                put(oldNodes[i], oldAnnotations[i]);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Node ids are consecutive, so they are spread over table by multiplicative hashing.
+     */
+    private static int hash(int node) {
+        int hash = node * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
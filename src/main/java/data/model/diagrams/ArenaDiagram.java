@@ -0,0 +1,176 @@
+package data.model.diagrams;
+
+import chess.board.ChessBoard;
+import chess.formats.algebraic.LongAlgebraicFactory;
+import chess.moves.raw.RawMove;
+import data.annotations.Annotations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * View of node of {@link DiagramArena}, keeping only arena and node id, so it is cheap to create
+ * and views of the same node are equal. Annotations and best move marks are stored in arena.
+ */
+public class ArenaDiagram implements DiagramNode {
+    private final DiagramArena arena;
+    private final int node;
+
+    ArenaDiagram(DiagramArena arena, int node) {
+        this.arena = arena;
+        this.node = node;
+    }
+
+    public int getNode() {
+        return node;
+    }
+
+    public int getGameCount() {
+        return arena.getGameCount(node);
+    }
+
+    public List<ArenaDiagram> getPathFromRoot() {
+        return List.of(getPathArray());
+    }
+
+    @Override
+    public ArenaDiagram[] getPathArray() {
+        ArenaDiagram[] result = new ArenaDiagram[depth() + 1];
+        int id = node;
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = arena.getDiagram(id);
+            id = arena.getParent(id);
+        }
+        return result;
+    }
+
+    @Override
+    public ArenaDiagram getRoot() {
+        return arena.getDiagram(DiagramArena.ROOT);
+    }
+
+    @Override
+    public Optional<ArenaDiagram> getParent() {
+        if (node == DiagramArena.ROOT) {
+            return Optional.empty();
+        }
+        return Optional.of(arena.getDiagram(arena.getParent(node)));
+    }
+
+    @Override
+    public String getMoveName() {
+        if (node == DiagramArena.ROOT) {
+            return "Root";
+        }
+        return LongAlgebraicFactory.getInstance().moveToLongAlgebraic(arena.getMovingPiece(node), arena.getMove(node));
+    }
+
+    @Override
+    public List<ArenaDiagram> getNextDiagrams() {
+        List<ArenaDiagram> result = new ArrayList<>();
+        for (int child = arena.getFirstChild(node); child != DiagramArena.NONE; child = arena.getNextSibling(child)) {
+            result.add(arena.getDiagram(child));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public ArenaDiagram getNextDiagramOnPath(int index) {
+        int child = arena.getFirstChild(node);
+        for (int i = 0; i < index && child != DiagramArena.NONE; i++) {
+            child = arena.getNextSibling(child);
+        }
+        if (index < 0 || child == DiagramArena.NONE) {
+            throw new IndexOutOfBoundsException("No next diagram with index " + index);
+        }
+        return arena.getDiagram(child);
+    }
+
+    @Override
+    public int indexOfNextDiagram(DiagramNode next) {
+        if (!(next instanceof ArenaDiagram diagram) || diagram.arena != arena) {
+            return -1;
+        }
+        int index = 0;
+        for (int child = arena.getFirstChild(node); child != DiagramArena.NONE; child = arena.getNextSibling(child)) {
+            if (child == diagram.node) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    public Optional<ArenaDiagram> getNextDiagram(RawMove move) {
+        int child = arena.getChild(node, move);
+        if (child == DiagramArena.NONE) {
+            return Optional.empty();
+        }
+        return Optional.of(arena.getDiagram(child));
+    }
+
+    /**
+     * @return false, as all nodes of arena are created
+     */
+    @Override
+    public boolean isLazy() {
+        return false;
+    }
+
+    @Override
+    public ChessBoard getBoard() {
+        return arena.getBoard(node);
+    }
+
+    @Override
+    public Annotations getAnnotations() {
+        return arena.getAnnotations(node);
+    }
+
+    @Override
+    public Optional<RawMove> getCreatingMove() {
+        if (node == DiagramArena.ROOT) {
+            return Optional.empty();
+        }
+        return Optional.of(arena.getMove(node));
+    }
+
+    @Override
+    public int depth() {
+        return arena.depth(node);
+    }
+
+    @Override
+    public void setAsBest() {
+        arena.setBest(node);
+    }
+
+    @Override
+    public boolean isBest() {
+        return arena.isBest(node);
+    }
+
+    @Override
+    public String toString() {
+        if (isBest()) {
+            return "!! " + getMoveName();
+        }
+        return getMoveName();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ArenaDiagram that = (ArenaDiagram) o;
+        return node == that.node && arena == that.arena;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(System.identityHashCode(arena), node);
+    }
+}
@@ -3,165 +3,389 @@ package data.model.diagrams;
 import chess.formats.algebraic.LongAlgebraicFactory;
 import data.annotations.Annotations;
 import chess.board.ChessBoard;
+import chess.board.fields.Field;
 import chess.moves.raw.RawMove;
+import chess.pieces.Piece;
 import data.model.metadata.GameData;
 import data.model.metadata.MetaData;
 
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class Diagram {
-    private final String moveName;
+public class Diagram implements DiagramNode {
+    private final Piece.Type movingPiece;
     private final Diagram parent;
-    private ArrayList<Diagram> nextDiagrams;
-    private ArrayDeque<RawMove> lazyMoves;
-    private final Annotations annotations = new Annotations();
+    private NextDiagrams nextDiagrams;
+    private LazyMoves lazyMoves;
+    private final Annotations annotations;
     private final RawMove creatingMove;
-    private final ArrayList<MetaData> metaData = new ArrayList<>();
+    private final ArrayList<MetaData> metaData;
+    private final Diagram transposition;
+    private ArrayList<MetaData> transposedMetaData;
+    private final Diagram root;
+    private final int depth;
     private boolean isBest = false;
 
     public Diagram() {
         parent = null;
         creatingMove = null;
-        moveName = "Root";
-        nextDiagrams = new ArrayList<>();
+        transposition = null;
+        root = this;
+        depth = 0;
+        movingPiece = null;
+        nextDiagrams = new NextDiagrams();
+        annotations = new Annotations();
+        metaData = new ArrayList<>();
     }
 
     public Diagram(RawMove creatingMove, ChessBoard chessBoard, Diagram parent) {
-        nextDiagrams = new ArrayList<>();
+        nextDiagrams = new NextDiagrams();
         this.parent = parent;
         this.creatingMove = creatingMove;
+        this.transposition = null;
+        this.root = parent == null ? this : parent.root;
+        this.depth = parent == null ? 0 : parent.depth + 1;
+        this.annotations = new Annotations();
+        this.metaData = new ArrayList<>();
 
-        if (parent != null) {
-            moveName = LongAlgebraicFactory.getInstance().moveToLongAlgebraic(chessBoard, creatingMove);
-        } else {
-            moveName = "Root";
-        }
+        this.movingPiece = parent == null ? null : movingPiece(chessBoard, creatingMove);
     }
 
     public Diagram(RawMove creatingMove, ChessBoard chessBoard, Diagram parent, ArrayDeque<RawMove> moves) {
+        this(creatingMove, chessBoard, parent, LazyMoves.of(moves));
+    }
+
+    public Diagram(RawMove creatingMove, ChessBoard chessBoard, Diagram parent, LazyMoves moves) {
         this.parent = parent;
         this.lazyMoves = moves;
         this.creatingMove = creatingMove;
-        this.moveName = LongAlgebraicFactory.getInstance().moveToLongAlgebraic(chessBoard, creatingMove);
+        this.transposition = null;
+        this.root = parent.root;
+        this.depth = parent.depth + 1;
+        this.annotations = new Annotations();
+        this.metaData = new ArrayList<>();
+        this.movingPiece = movingPiece(chessBoard, creatingMove);
+    }
+
+    /**
+     * Creates diagram reaching position of other diagram by different move order. It keeps its own move and parent,
+     * while next diagrams, lazy moves, games and annotations are shared with diagram it transposes to.
+     */
+    public Diagram(RawMove creatingMove, ChessBoard chessBoard, Diagram parent, Diagram transposition) {
+        this.parent = parent;
+        this.creatingMove = creatingMove;
+        this.transposition = transposition.getTarget();
+        this.root = parent.root;
+        this.depth = parent.depth + 1;
+        this.annotations = null;
+        this.metaData = null;
+        this.movingPiece = movingPiece(chessBoard, creatingMove);
+    }
+
+    /**
+     * Creates view of next diagram as child of given parent, which is transposition or view. View is not stored
+     * in tree, it shares data of next diagram like transposition, so its path from root keeps move order of parent.
+     */
+    private Diagram(Diagram parent, Diagram next) {
+        this.parent = parent;
+        this.creatingMove = next.creatingMove;
+        this.transposition = next.getTarget();
+        this.root = parent.root;
+        this.depth = parent.depth + 1;
+        this.annotations = null;
+        this.metaData = null;
+        this.movingPiece = next.movingPiece;
+    }
+
+    private static Piece.Type movingPiece(ChessBoard chessBoard, RawMove move) {
+        Field field = chessBoard.getField(move.getStartPosition());
+        return field.hasPiece() ? field.getPiece().getType() : null;
+    }
+
+    /**
+     * @return diagram stored in next diagrams of parent for move of this diagram, view is not stored in tree,
+     * so diagram it stands for is returned
+     */
+    private Diagram getStored() {
+        if (transposition == null || parent == null) {
+            return this;
+        }
+        return parent.getNextDiagram(creatingMove).orElse(this);
+    }
+
+    /**
+     * @return diagram holding shared data of this position, this diagram if it is not transposition
+     */
+    private Diagram getTarget() {
+        return transposition == null ? this : transposition;
+    }
+
+    public Optional<Diagram> getTransposition() {
+        return Optional.ofNullable(transposition);
+    }
+
+    /**
+     * @return games which reached position of this transposition by its move order and continue in next diagrams
+     * of diagram it transposes to, empty for other diagrams
+     */
+    public List<MetaData> getTransposedMetaData() {
+        return transposedMetaData == null ? List.of() : transposedMetaData;
+    }
+
+    public void addTransposedMetaData(MetaData metaData) {
+        if (transposition == null) {
+            throw new IllegalStateException("Only transposition can have transposed games");
+        }
+        if (transposedMetaData == null) {
+            transposedMetaData = new ArrayList<>();
+        }
+        transposedMetaData.add(metaData);
+    }
+
+    /**
+     * @param transposition transposition or view, which transposes to this diagram or to its ancestor
+     * @return view of this diagram, whose path from root goes through given transposition
+     */
+    public Diagram reachedThrough(Diagram transposition) {
+        Diagram target = transposition.getTarget();
+        if (getTarget() == target) {
+            return transposition;
+        }
+        ArrayDeque<Diagram> between = new ArrayDeque<>();
+        Diagram diagram = this;
+        while (diagram != target) {
+            if (diagram.parent == null) {
+                throw new IllegalArgumentException(this + " is not reached through " + transposition);
+            }
+            between.push(diagram);
+            diagram = diagram.parent;
+        }
+        Diagram result = transposition;
+        for (Diagram next : between) {
+            result = new Diagram(result, next);
+        }
+        return result;
     }
 
     public List<Diagram> getPathFromRoot() {
-        if (parent == null) {
-            return new ArrayList<>(List.of(this));
-        } else {
-            List<Diagram> result = parent.getPathFromRoot();
-            result.add(this);
-            return result;
+        return new ArrayList<>(Arrays.asList(getPathArray()));
+    }
+
+    /**
+     * @return diagrams from root to this diagram, array has length of depth plus one
+     */
+    @Override
+    public Diagram[] getPathArray() {
+        Diagram[] result = new Diagram[depth + 1];
+        Diagram diagram = this;
+        for (int i = depth; i >= 0; i--) {
+            result[i] = diagram;
+            diagram = diagram.parent;
         }
+        return result;
     }
 
+    @Override
     public Diagram getRoot() {
-        return getParent()
-                .map(Diagram::getRoot)
-                .orElse(this);
+        return root;
     }
 
+    @Override
     public Annotations getAnnotations() {
-        return annotations;
+        return getTarget().annotations;
     }
 
+    @Override
     public Optional<Diagram> getParent() {
         return Optional.ofNullable(parent);
     }
 
+    /**
+     * @return name of creating move in long algebraic notation, interned by {@link LongAlgebraicFactory}
+     */
+    @Override
     public String getMoveName() {
-        return moveName;
+        if (parent == null) {
+            return "Root";
+        }
+        return LongAlgebraicFactory.getInstance().moveToLongAlgebraic(movingPiece, creatingMove);
+    }
+
+    Piece.Type getMovingPiece() {
+        return movingPiece;
     }
 
+    @Override
     public List<Diagram> getNextDiagrams() {
-        return nextDiagrams;
+        return getTarget().nextDiagrams;
+    }
+
+    /**
+     * @return next diagrams of diagram, for transposition or view these are views with this diagram as parent
+     */
+    public List<Diagram> getNextDiagramsOnPath() {
+        List<Diagram> next = getNextDiagrams();
+        if (transposition == null) {
+            return next;
+        }
+        List<Diagram> result = new ArrayList<>(next.size());
+        for (Diagram diagram : next) {
+            result.add(new Diagram(this, diagram));
+        }
+        return result;
+    }
+
+    /**
+     * @return next diagram at given index, for transposition or view it is a view with this diagram as parent,
+     * so other next diagrams are not wrapped
+     */
+    @Override
+    public Diagram getNextDiagramOnPath(int index) {
+        Diagram next = getNextDiagrams().get(index);
+        return transposition == null ? next : new Diagram(this, next);
     }
 
+    /**
+     * Finds next diagram by identity of diagram stored in tree, so views are neither created nor compared.
+     *
+     * @return index of next diagram or view of it, -1 if it is not next diagram of this diagram
+     */
+    @Override
+    public int indexOfNextDiagram(DiagramNode next) {
+        if (!(next instanceof Diagram diagram) || diagram.parent == null || diagram.parent.getTarget() != getTarget()) {
+            return -1;
+        }
+        Diagram stored = diagram.getStored();
+        List<Diagram> nextDiagrams = getNextDiagrams();
+        for (int i = 0; i < nextDiagrams.size(); i++) {
+            if (nextDiagrams.get(i) == stored) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return next diagram created by move, children of wide diagrams are found by index
+     */
+    public Optional<Diagram> getNextDiagram(RawMove move) {
+        NextDiagrams next = getTarget().nextDiagrams;
+        if (next == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(next.find(move));
+    }
+
+    /**
+     * Replays moves from nearest ancestor with board in {@link DiagramBoardCache}, boards of replayed diagrams are
+     * cached. View has position and last move of diagram it stands for, so it uses board of that diagram.
+     */
+    @Override
     public ChessBoard getBoard() {
         if (parent == null) {
             return new ChessBoard();
         }
-        ChessBoard result = new ChessBoard();
-        List<RawMove> moves = getPathFromRoot().stream()
-                .skip(1)
-                .map(diagram -> diagram.getCreatingMove().orElseThrow())
-                .toList();
-
-        for (RawMove move : moves) {
-            result = result.makeMove(move).validate().orElseThrow().getResult();
+        Diagram stored = getStored();
+        if (stored != this) {
+            return stored.getBoard();
+        }
+        DiagramBoardCache cache = DiagramBoardCache.getInstance();
+        ArrayDeque<Diagram> uncached = new ArrayDeque<>();
+        Diagram diagram = this;
+        ChessBoard result = cache.get(diagram);
+        while (result == null) {
+            uncached.push(diagram);
+            diagram = diagram.parent;
+            result = diagram.parent == null ? diagram.getBoard() : cache.get(diagram);
+        }
+        for (Diagram next : uncached) {
+            result = result.makeMove(next.creatingMove).validate().orElseThrow().getResult();
+            cache.put(next, result);
         }
         return result;
     }
 
     @Override
     public String toString() {
-        if (isBest) {
-            return "!! " + moveName;
+        if (isBest()) {
+            return "!! " + getMoveName();
         }
-        return moveName;
+        return getMoveName();
     }
 
     public List<MetaData> getMetaData() {
-        return metaData;
+        return getTarget().metaData;
     }
 
     public List<GameData> getGameData() {
-        return metaData.stream()
+        return getMetaData().stream()
                 .filter(m -> m instanceof GameData)
                 .map(m -> (GameData) m)
                 .toList();
     }
 
+    @Override
     public Optional<RawMove> getCreatingMove() {
         return Optional.ofNullable(creatingMove);
     }
 
+    @Override
     public int depth() {
-        Diagram diagram = this;
-        int result = 0;
-        while (diagram.parent != null) {
-            result++;
-            diagram = diagram.parent;
-        }
-        return result;
+        return depth;
+    }
+
+    /**
+     * Traverses diagrams of subtree without recursion, starting with this diagram. Lazy diagrams and transpositions
+     * are visited without their next diagrams. Stream can be made parallel, as traversal splits pending subtrees.
+     */
+    public Stream<Diagram> subtree() {
+        return StreamSupport.stream(new DiagramSpliterator(this), false);
     }
 
+    @Override
     public boolean isLazy() {
-        return nextDiagrams == null;
+        return getTarget().nextDiagrams == null;
     }
 
     public List<RawMove> getLazyMovesList() {
-        if (lazyMoves == null) {
+        LazyMoves moves = getTarget().lazyMoves;
+        if (moves == null) {
             return null;
         }
-        return lazyMoves.stream().toList();
+        return moves.toList();
     }
 
-    public ArrayDeque<RawMove> getLazyMovesDeque() {
-        return lazyMoves;
+    public LazyMoves getLazyMoves() {
+        return getTarget().lazyMoves;
     }
 
-    public void setLazyMoves(ArrayDeque<RawMove> lazyMoves) {
-        this.lazyMoves = lazyMoves;
+    public void setLazyMoves(LazyMoves lazyMoves) {
+        getTarget().lazyMoves = lazyMoves;
     }
 
     public void expandNextDiagrams() {
-        nextDiagrams = new ArrayList<>();
+        getTarget().nextDiagrams = new NextDiagrams();
     }
 
+    /**
+     * Marks diagram as best move of its parent, view marks diagram it stands for.
+     */
+    @Override
     public void setAsBest() {
         if (parent == null) {
             return;
         }
 
-        isBest = true;
+        Diagram stored = getStored();
+        stored.isBest = true;
 
         if (parent.isLazy()) {
             return;
         }
 
-        parent.nextDiagrams.stream()
-                .filter(d -> d != this)
+        parent.getNextDiagrams().stream()
+                .filter(d -> d != stored)
                 .forEach(Diagram::setBestAsFalse);
     }
 
@@ -169,7 +393,27 @@ public class Diagram {
         isBest = false;
     }
 
+    @Override
     public boolean isBest() {
-        return isBest;
+        return getStored().isBest;
+    }
+
+    /**
+     * Transpositions and views are equal when they have the same move, parent and diagram they transpose to,
+     * other diagrams are equal only to themselves.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (transposition == null || !(o instanceof Diagram that) || that.transposition != transposition) return false;
+        return Objects.equals(creatingMove, that.creatingMove) && Objects.equals(parent, that.parent);
+    }
+
+    @Override
+    public int hashCode() {
+        if (transposition == null) {
+            return super.hashCode();
+        }
+        return 31 * System.identityHashCode(transposition) + depth;
     }
 }
@@ -0,0 +1,388 @@
+package data.model.diagrams;
+
+import chess.board.ChessBoard;
+import chess.board.fields.Field;
+import chess.board.lowlevel.Bitboards;
+import chess.moves.packed.PackedMove;
+import chess.moves.raw.RawMove;
+import chess.moves.raw.RawPromotion;
+import chess.pieces.Piece;
+import data.annotations.Annotations;
+import data.model.metadata.GameData;
+import data.model.metadata.MetaData;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact storage of opening tree in primitive arrays indexed by node id. Children are linked by first child
+ * and next sibling, moves are stored packed without castle and en passant flags. Root has id 0 and children
+ * are always added after their parents, so parents have lower ids than children.
+ * Game count of node is number of inserted games passing through or ending in node.
+ * Moving piece of node is stored when it is known or when board of its parent is computed, so names of moves
+ * are built without replaying games. Board of last requested node is kept, so boards of its descendants are
+ * replayed from it. Annotations are kept only for nodes which have them.
+ * Nodes can be browsed with {@link ArenaDiagram} views.
+ */
+public class DiagramArena {
+    public static final int ROOT = 0;
+    public static final int NONE = -1;
+    private static final int DEFAULT_CAPACITY = 1 << 10;
+    private static final byte BEST = 1;
+    private static final byte UNKNOWN_PIECE = 0;
+    private static final Piece.Type[] PIECE_TYPES = Piece.Type.values();
+    private int[] parents;
+    private int[] firstChildren;
+    private int[] nextSiblings;
+    private int[] moves;
+    private int[] gameCounts;
+    private byte[] flags;
+    private byte[] pieces;
+    private final ArenaAnnotations annotations = new ArenaAnnotations();
+    private int size;
+    private int boardNode = NONE;
+    private ChessBoard board;
+
+    public DiagramArena() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public DiagramArena(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Arena capacity must be positive: " + capacity);
+        }
+        parents = new int[capacity];
+        firstChildren = new int[capacity];
+        nextSiblings = new int[capacity];
+        moves = new int[capacity];
+        gameCounts = new int[capacity];
+        flags = new byte[capacity];
+        pieces = new byte[capacity];
+        add(NONE, 0);
+    }
+
+    /**
+     * Copies tree with lazy moves of its diagrams, games stored in diagrams are counted in nodes they end in.
+     * Games and annotations of transpositions are stored in diagram they transpose to, so game which entered
+     * transposition is counted along its own move order: moves from diagram transposed to, to diagram of game
+     * are added under node of last transposition entered by game.
+     * Arena always starts from initial position, so trees starting from FEN are not supported.
+     */
+    public static DiagramArena of(Diagram root) {
+        if (root instanceof FENDiagram) {
+            throw new IllegalArgumentException("Arena supports only trees starting from initial position");
+        }
+        DiagramArena arena = new DiagramArena();
+        Map<MetaData, Copied> entered = new IdentityHashMap<>();
+        List<Copied> withGames = new ArrayList<>();
+        ArrayDeque<Diagram> diagrams = new ArrayDeque<>(List.of(root));
+        ArrayDeque<Integer> nodes = new ArrayDeque<>(List.of(ROOT));
+        while (!diagrams.isEmpty()) {
+            Diagram diagram = diagrams.pop();
+            int node = nodes.pop();
+            if (diagram.isBest()) {
+                arena.setBest(node);
+            }
+            if (diagram.getTransposition().isPresent()) {
+                for (MetaData metaData : diagram.getTransposedMetaData()) {
+                    entered.merge(metaData, new Copied(diagram, node), Copied::deeper);
+                }
+                continue;
+            }
+            if (!diagram.getAnnotations().isEmpty()) {
+                arena.getAnnotations(node).addAll(diagram.getAnnotations());
+            }
+            if (!diagram.getMetaData().isEmpty()) {
+                withGames.add(new Copied(diagram, node));
+            }
+            if (diagram.isLazy()) {
+                arena.addLazyMoves(node, diagram.getLazyMoves());
+                continue;
+            }
+            for (Diagram next : diagram.getNextDiagrams()) {
+                diagrams.push(next);
+                nodes.push(arena.addChild(node, next.getCreatingMove().orElseThrow(), next.getMovingPiece()));
+            }
+        }
+        for (Copied copied : withGames) {
+            arena.countGames(copied.diagram(), copied.node(), entered);
+        }
+        for (int node = arena.size - 1; node > ROOT; node--) {
+            arena.gameCounts[arena.parents[node]] += arena.gameCounts[node];
+        }
+        return arena;
+    }
+
+    /**
+     * Diagram with its node in arena.
+     */
+    private record Copied(Diagram diagram, int node) {
+        Copied deeper(Copied other) {
+            return other.diagram.depth() > diagram.depth() ? other : this;
+        }
+    }
+
+    private void countGames(Diagram diagram, int node, Map<MetaData, Copied> entered) {
+        int depth = diagram.depth();
+        for (MetaData metaData : diagram.getMetaData()) {
+            int gameNode = node;
+            Copied transposition = entered.get(metaData);
+            if (transposition != null) {
+                gameNode = addPath(transposition.node(), transposition.diagram().getTransposition().orElseThrow(), diagram);
+            }
+            boolean endsHere = metaData instanceof GameData gameData && gameData.length() == depth;
+            if (!endsHere && diagram.isLazy()) {
+                gameNode = addLazyMoves(gameNode, diagram.getLazyMoves());
+            }
+            gameCounts[gameNode]++;
+        }
+    }
+
+    /**
+     * @return node reached by moves from ancestor diagram to diagram, added under given node
+     */
+    private int addPath(int node, Diagram ancestor, Diagram diagram) {
+        ArrayDeque<Diagram> path = new ArrayDeque<>();
+        for (Diagram next = diagram; next != ancestor; next = next.getParent().orElseThrow()) {
+            path.push(next);
+        }
+        for (Diagram next : path) {
+            node = addChild(node, next.getCreatingMove().orElseThrow(), next.getMovingPiece());
+        }
+        return node;
+    }
+
+    private int addLazyMoves(int node, LazyMoves lazyMoves) {
+        if (lazyMoves == null) {
+            return node;
+        }
+        for (int i = 0; i < lazyMoves.size(); i++) {
+            node = addChild(node, lazyMoves.get(i));
+        }
+        return node;
+    }
+
+    /**
+     * Adds game to tree, creating missing nodes.
+     *
+     * @return node in which game ends
+     */
+    public int insert(Iterable<RawMove> game) {
+        int node = ROOT;
+        gameCounts[node]++;
+        for (RawMove move : game) {
+            node = addChild(node, move);
+            gameCounts[node]++;
+        }
+        return node;
+    }
+
+    /**
+     * @return child of node created by move, added after existing children if it does not exist yet
+     */
+    public int addChild(int node, RawMove move) {
+        return addChild(node, move, null);
+    }
+
+    /**
+     * @param piece type of moving piece, null when it is not known yet
+     * @return child of node created by move, added after existing children if it does not exist yet
+     */
+    public int addChild(int node, RawMove move, Piece.Type piece) {
+        int packed = encode(move);
+        int last = NONE;
+        for (int child = firstChildren[node]; child != NONE; child = nextSiblings[child]) {
+            if (moves[child] == packed) {
+                return child;
+            }
+            last = child;
+        }
+        int child = add(node, packed);
+        if (piece != null) {
+            pieces[child] = (byte) (piece.ordinal() + 1);
+        }
+        if (last == NONE) {
+            firstChildren[node] = child;
+        } else {
+            nextSiblings[last] = child;
+        }
+        return child;
+    }
+
+    /**
+     * @return child of node created by move or {@link #NONE}
+     */
+    public int getChild(int node, RawMove move) {
+        return getChild(node, encode(move));
+    }
+
+    private int getChild(int node, int packed) {
+        for (int child = firstChildren[node]; child != NONE; child = nextSiblings[child]) {
+            if (moves[child] == packed) {
+                return child;
+            }
+        }
+        return NONE;
+    }
+
+    private int add(int parent, int move) {
+        if (size == parents.length) {
+            grow();
+        }
+        int node = size++;
+        parents[node] = parent;
+        firstChildren[node] = NONE;
+        nextSiblings[node] = NONE;
+        moves[node] = move;
+        return node;
+    }
+
+    private void grow() {
+        int capacity = parents.length * 2;
+        parents = Arrays.copyOf(parents, capacity);
+        firstChildren = Arrays.copyOf(firstChildren, capacity);
+        nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+        moves = Arrays.copyOf(moves, capacity);
+        gameCounts = Arrays.copyOf(gameCounts, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        pieces = Arrays.copyOf(pieces, capacity);
+    }
+
+    private static int encode(RawMove move) {
+        int from = Bitboards.square(move.getStartPosition());
+        int to = Bitboards.square(move.getEndPosition());
+        if (move instanceof RawPromotion rawPromotion) {
+            return PackedMove.promotion(from, to, rawPromotion.getType());
+        }
+        return PackedMove.of(from, to, PackedMove.NORMAL);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getParent(int node) {
+        return parents[node];
+    }
+
+    public int getFirstChild(int node) {
+        return firstChildren[node];
+    }
+
+    public int getNextSibling(int node) {
+        return nextSiblings[node];
+    }
+
+    public int getChildCount(int node) {
+        int result = 0;
+        for (int child = firstChildren[node]; child != NONE; child = nextSiblings[child]) {
+            result++;
+        }
+        return result;
+    }
+
+    /**
+     * @return move creating node, root has no move
+     */
+    public RawMove getMove(int node) {
+        if (node == ROOT) {
+            throw new IllegalArgumentException("Root has no creating move");
+        }
+        return PackedMove.toRawMove(moves[node]);
+    }
+
+    /**
+     * @return type of piece making move of node, computed from board of parent when it is not stored yet
+     */
+    public Piece.Type getMovingPiece(int node) {
+        if (node == ROOT) {
+            throw new IllegalArgumentException("Root has no creating move");
+        }
+        if (pieces[node] == UNKNOWN_PIECE) {
+            getBoard(parents[node]);
+            storeMovingPiece(board, node);
+        }
+        return PIECE_TYPES[pieces[node] - 1];
+    }
+
+    private void storeMovingPiece(ChessBoard parentBoard, int node) {
+        Field field = parentBoard.getField(getMove(node).getStartPosition());
+        if (field.hasPiece()) {
+            pieces[node] = (byte) (field.getPiece().getType().ordinal() + 1);
+        }
+    }
+
+    public int getGameCount(int node) {
+        return gameCounts[node];
+    }
+
+    public int depth(int node) {
+        int result = 0;
+        for (; node != ROOT; node = parents[node]) {
+            result++;
+        }
+        return result;
+    }
+
+    public boolean isBest(int node) {
+        return (flags[node] & BEST) != 0;
+    }
+
+    /**
+     * Marks node as best move of its parent, clearing mark of its siblings.
+     */
+    public void setBest(int node) {
+        if (node == ROOT) {
+            return;
+        }
+        for (int child = firstChildren[parents[node]]; child != NONE; child = nextSiblings[child]) {
+            flags[child] &= ~BEST;
+        }
+        flags[node] |= BEST;
+    }
+
+    /**
+     * @return annotations of node, created when node has none yet
+     */
+    public Annotations getAnnotations(int node) {
+        return annotations.getOrCreate(node);
+    }
+
+    /**
+     * Replays moves from root or from node of last computed board, when it is ancestor of node, without legality
+     * check, as moves of arena come from validated games. Moving pieces of replayed nodes are stored.
+     *
+     * @return board after moves from root to node
+     */
+    public ChessBoard getBoard(int node) {
+        int[] path = new int[depth(node)];
+        int length = 0;
+        int ancestor = node;
+        while (ancestor != ROOT && ancestor != boardNode) {
+            path[length++] = ancestor;
+            ancestor = parents[ancestor];
+        }
+        ChessBoard result = ancestor == boardNode ? board : new ChessBoard();
+        for (int i = length - 1; i >= 0; i--) {
+            RawMove move = getMove(path[i]);
+            if ((result.getBoard().getOccupancy(result.getColor()) & Bitboards.bit(move.getStartPosition())) == 0) {
+                throw new IllegalStateException("No piece of side to move on " + move.getStartPosition());
+            }
+            if (pieces[path[i]] == UNKNOWN_PIECE) {
+                storeMovingPiece(result, path[i]);
+            }
+            result = result.makeMove(PackedMove.toExecutableMove(PackedMove.of(move, result.getBoard()), result));
+        }
+        boardNode = node;
+        board = result;
+        return result;
+    }
+
+    public ArenaDiagram getDiagram(int node) {
+        return new ArenaDiagram(this, node);
+    }
+}
@@ -0,0 +1,133 @@
+package data.model.diagrams;
+
+import chess.board.ChessBoard;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of boards of diagrams, so {@link Diagram#getBoard()} replays moves only from the nearest
+ * cached ancestor instead of from root. Least recently used diagram is evicted when cache is full.
+ * Diagrams are referenced weakly and compared by identity, so cache does not keep diagrams of deleted or replaced
+ * trees alive, and entries of collected diagrams are removed on next access.
+ * Board of diagram never changes, since its parent and creating move are final, so entries are never invalidated.
+ */
+public class DiagramBoardCache {
+    public static final int DEFAULT_CAPACITY = 1 << 12;
+    private static final DiagramBoardCache cache = new DiagramBoardCache(DEFAULT_CAPACITY);
+    private final Map<Key, ChessBoard> boards;
+    private final ReferenceQueue<Diagram> collected = new ReferenceQueue<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Weak reference to diagram with identity hash code kept after diagram is collected, so its entry can be removed.
+     */
+    private static class Key extends WeakReference<Diagram> {
+        private final int hash;
+
+        Key(Diagram diagram, ReferenceQueue<Diagram> queue) {
+            super(diagram, queue);
+            hash = System.identityHashCode(diagram);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            Diagram diagram = get();
+            return diagram != null && diagram == key.get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    public static DiagramBoardCache getInstance() {
+        return cache;
+    }
+
+    public DiagramBoardCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+        }
+        boards = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, ChessBoard> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @return cached board of diagram or null
+     */
+    ChessBoard get(Diagram diagram) {
+        ChessBoard result;
+        synchronized (boards) {
+            removeCollected();
+            result = boards.get(new Key(diagram, null));
+        }
+        if (result != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return result;
+    }
+
+    void put(Diagram diagram, ChessBoard chessBoard) {
+        synchronized (boards) {
+            removeCollected();
+            boards.put(new Key(diagram, collected), chessBoard);
+        }
+    }
+
+    private void removeCollected() {
+        for (Reference<? extends Diagram> key = collected.poll(); key != null; key = collected.poll()) {
+            boards.remove(key);
+        }
+    }
+
+    public int size() {
+        synchronized (boards) {
+            removeCollected();
+            return boards.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (boards) {
+            boards.clear();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = getHits();
+        long probeCount = hitCount + getMisses();
+        if (probeCount == 0) {
+            return 0;
+        }
+        return (double) hitCount / probeCount;
+    }
+
+    @Override
+    public String toString() {
+        return "Board cache: " + size() + " diagrams, " + getHits() + " hits, " + getMisses() + " misses ("
+                + Math.round(getHitRate() * 100) + "%)";
+    }
+}
@@ -0,0 +1,54 @@
+package data.model.diagrams;
+
+import chess.board.ChessBoard;
+import chess.moves.raw.RawMove;
+import data.annotations.Annotations;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Node of opening tree, which can be browsed by {@link data.model.TreeDataModel}. It is implemented by
+ * {@link Diagram} of working tree and by {@link ArenaDiagram} view of node of {@link DiagramArena}.
+ */
+public interface DiagramNode {
+    DiagramNode getRoot();
+
+    Optional<? extends DiagramNode> getParent();
+
+    List<? extends DiagramNode> getNextDiagrams();
+
+    /**
+     * @return next diagram with index, with path from root going through this node
+     */
+    DiagramNode getNextDiagramOnPath(int index);
+
+    /**
+     * @return index of next diagram, -1 if it is not next diagram of this node
+     */
+    int indexOfNextDiagram(DiagramNode next);
+
+    /**
+     * @return nodes from root to this node, array has length of depth plus one
+     */
+    DiagramNode[] getPathArray();
+
+    /**
+     * @return true if next diagrams are not created yet
+     */
+    boolean isLazy();
+
+    ChessBoard getBoard();
+
+    Annotations getAnnotations();
+
+    Optional<RawMove> getCreatingMove();
+
+    String getMoveName();
+
+    int depth();
+
+    void setAsBest();
+
+    boolean isBest();
+}
@@ -0,0 +1,78 @@
+package data.model.diagrams;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Depth first traversal of diagrams with explicit stack of pending subtrees. Splitting hands over the half of
+ * pending subtrees closest to root. When only one subtree is pending, its root is kept to be reported first
+ * and its next diagrams become pending, so traversal started from single diagram can be split.
+ */
+class DiagramSpliterator implements Spliterator<Diagram> {
+    private final ArrayDeque<Diagram> pending;
+    private Diagram expanded;
+
+    DiagramSpliterator(Diagram root) {
+        this(new ArrayDeque<>(List.of(root)));
+    }
+
+    private DiagramSpliterator(ArrayDeque<Diagram> pending) {
+        this.pending = pending;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Diagram> action) {
+        if (expanded != null) {
+            Diagram diagram = expanded;
+            expanded = null;
+            action.accept(diagram);
+            return true;
+        }
+        Diagram diagram = pending.poll();
+        if (diagram == null) {
+            return false;
+        }
+        pushNextDiagrams(diagram);
+        action.accept(diagram);
+        return true;
+    }
+
+    @Override
+    public Spliterator<Diagram> trySplit() {
+        if (pending.size() == 1 && expanded == null) {
+            expanded = pending.pop();
+            pushNextDiagrams(expanded);
+        }
+        int size = pending.size();
+        if (size < 2) {
+            return null;
+        }
+        ArrayDeque<Diagram> split = new ArrayDeque<>(size / 2);
+        for (int i = 0; i < size / 2; i++) {
+            split.addFirst(pending.pollLast());
+        }
+        return new DiagramSpliterator(split);
+    }
+
+    private void pushNextDiagrams(Diagram diagram) {
+        if (diagram.isLazy() || diagram.getTransposition().isPresent()) {
+            return;
+        }
+        List<Diagram> nextDiagrams = diagram.getNextDiagrams();
+        for (int i = nextDiagrams.size() - 1; i >= 0; i--) {
+            pending.push(nextDiagrams.get(i));
+        }
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return NONNULL | DISTINCT;
+    }
+}
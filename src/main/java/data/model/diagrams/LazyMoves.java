@@ -0,0 +1,143 @@
+package data.model.diagrams;
+
+import chess.board.lowlevel.Bitboards;
+import chess.moves.raw.RawMove;
+import chess.moves.raw.RawPromotion;
+import chess.pieces.Piece;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Unexpanded continuation of lazy diagram, stored as moves packed in shorts: start square, end square and
+ * promotion type increased by one or 0. Polling only moves offset, so array is never copied and can be shared
+ * by tails of the same game.
+ */
+public class LazyMoves implements Comparable<LazyMoves> {
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int END_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final Piece.Type[] TYPES = Piece.Type.values();
+    private final short[] moves;
+    private int offset;
+
+    private LazyMoves(short[] moves, int offset) {
+        this.moves = moves;
+        this.offset = offset;
+    }
+
+    public static LazyMoves of(Collection<RawMove> rawMoves) {
+        short[] moves = new short[rawMoves.size()];
+        int i = 0;
+        for (RawMove move : rawMoves) {
+            moves[i++] = pack(move);
+        }
+        return new LazyMoves(moves, 0);
+    }
+
+    private static short pack(RawMove move) {
+        int promotion = move instanceof RawPromotion rawPromotion ? rawPromotion.getType().ordinal() + 1 : 0;
+        return (short) (Bitboards.square(move.getStartPosition())
+                | Bitboards.square(move.getEndPosition()) << END_SHIFT
+                | promotion << PROMOTION_SHIFT);
+    }
+
+    private static RawMove unpack(short move) {
+        RawMove result = RawMove.of(Bitboards.position(move & SQUARE_MASK), Bitboards.position(move >>> END_SHIFT & SQUARE_MASK));
+        int promotion = move >>> PROMOTION_SHIFT;
+        if (promotion == 0) {
+            return result;
+        }
+        return new RawPromotion(result, TYPES[promotion - 1]);
+    }
+
+    public int size() {
+        return moves.length - offset;
+    }
+
+    public boolean isEmpty() {
+        return offset == moves.length;
+    }
+
+    public RawMove get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return unpack(moves[offset + index]);
+    }
+
+    /**
+     * @return first move or null when there are no moves
+     */
+    public RawMove peek() {
+        return isEmpty() ? null : unpack(moves[offset]);
+    }
+
+    /**
+     * Removes first move without copying remaining ones.
+     *
+     * @return first move or null when there are no moves
+     */
+    public RawMove poll() {
+        return isEmpty() ? null : unpack(moves[offset++]);
+    }
+
+    /**
+     * Removes given number of first moves without copying remaining ones.
+     */
+    public void skip(int count) {
+        if (count < 0 || count > size()) {
+            throw new IndexOutOfBoundsException(count);
+        }
+        offset += count;
+    }
+
+    public boolean startsWith(RawMove move) {
+        return !isEmpty() && moves[offset] == pack(move);
+    }
+
+    /**
+     * @return true if both have the same remaining moves
+     */
+    public boolean matches(LazyMoves other) {
+        return Arrays.equals(moves, offset, moves.length, other.moves, other.offset, other.moves.length);
+    }
+
+    /**
+     * @return number of equal first remaining moves of both
+     */
+    public int mismatch(LazyMoves other) {
+        int result = Arrays.mismatch(moves, offset, moves.length, other.moves, other.offset, other.moves.length);
+        return result < 0 ? size() : result;
+    }
+
+    /**
+     * Compares remaining moves lexicographically by packed value, so games with common first moves are adjacent when sorted.
+     */
+    @Override
+    public int compareTo(LazyMoves other) {
+        return Arrays.compare(moves, offset, moves.length, other.moves, other.offset, other.moves.length);
+    }
+
+    /**
+     * @return tail with the same remaining moves and its own offset, sharing moves array
+     */
+    public LazyMoves copy() {
+        return new LazyMoves(moves, offset);
+    }
+
+    public List<RawMove> toList() {
+        List<RawMove> result = new ArrayList<>(size());
+        for (int i = offset; i < moves.length; i++) {
+            result.add(unpack(moves[i]));
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+}
@@ -0,0 +1,118 @@
+package data.model.diagrams;
+
+import chess.board.lowlevel.Bitboards;
+import chess.moves.packed.PackedMove;
+import chess.moves.raw.RawMove;
+import chess.moves.raw.RawPromotion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Children of diagram in insertion order. When list grows over {@link #INDEXED_SIZE}, children are indexed
+ * by creating move in open addressed table of list positions. Appending updates index, any other modification
+ * makes it rebuilt on next lookup.
+ */
+class NextDiagrams extends ArrayList<Diagram> {
+    static final int INDEXED_SIZE = 8;
+    private static final int EMPTY = -1;
+    private int[] keys;
+    private int[] positions;
+    private int indexed;
+    private int indexedModCount;
+
+    /**
+     * @return first child created by move equal to given one or null
+     */
+    Diagram find(RawMove move) {
+        if (size() < INDEXED_SIZE) {
+            for (Diagram diagram : this) {
+                if (diagram.getCreatingMove().isPresent() && diagram.getCreatingMove().get().equals(move)) {
+                    return diagram;
+                }
+            }
+            return null;
+        }
+        int position = lookup(key(move));
+        return position == EMPTY ? null : get(position);
+    }
+
+    @Override
+    public boolean add(Diagram diagram) {
+        boolean indexValid = keys != null && indexedModCount == modCount;
+        super.add(diagram);
+        if (indexValid && (indexed + 1) * 2 <= keys.length) {
+            put(diagram, size() - 1);
+            indexedModCount = modCount;
+        }
+        return true;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (size() >= INDEXED_SIZE && o instanceof Diagram diagram && diagram.getCreatingMove().isPresent()) {
+            int position = lookup(key(diagram.getCreatingMove().get()));
+            if (position != EMPTY && get(position) == diagram) {
+                return position;
+            }
+        }
+        return super.indexOf(o);
+    }
+
+    private int lookup(int key) {
+        if (keys == null || indexedModCount != modCount) {
+            rebuild();
+        }
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return positions[slot];
+            }
+        }
+        return EMPTY;
+    }
+
+    private void rebuild() {
+        int capacity = Integer.highestOneBit(Math.max(size(), INDEXED_SIZE) * 4);
+        keys = new int[capacity];
+        positions = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        indexed = 0;
+        for (int i = 0; i < size(); i++) {
+            put(get(i), i);
+        }
+        indexedModCount = modCount;
+    }
+
+    /**
+     * Keeps first child for each move, as linear search does.
+     */
+    private void put(Diagram diagram, int position) {
+        if (diagram.getCreatingMove().isEmpty()) {
+            return;
+        }
+        int key = key(diagram.getCreatingMove().get());
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        for (; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return;
+            }
+        }
+        keys[slot] = key;
+        positions[slot] = position;
+        indexed++;
+    }
+
+    /**
+     * @return code of move squares and its class, as moves are compared by {@link RawMove#equals(Object)}
+     */
+    private static int key(RawMove move) {
+        int flag = move instanceof RawPromotion ? PackedMove.PROMOTION : PackedMove.NORMAL;
+        return PackedMove.of(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()), flag);
+    }
+
+    private static int hash(int key) {
+        return key * 0x9E3779B1 >>> 16;
+    }
+}
@@ -8,25 +8,30 @@ import java.util.*;
 
 public class GamesRepository {
     private Map<MetaData, Diagram> games = new HashMap<>();
+    private Map<MetaData, List<Diagram>> transpositions = new HashMap<>();
 
     public void setNewTree(Diagram root) {
-        games = gatherMetadataFromTree(root);
+        games = new HashMap<>();
+        transpositions = new HashMap<>();
+        gatherMetadataFromTree(root);
     }
 
-    private Map<MetaData, Diagram> gatherMetadataFromTree(Diagram root) {
-        Map<MetaData, Diagram> result = new HashMap<>();
-        Stack<Diagram> stack = new Stack<>();
-        stack.add(root);
-        while (!stack.isEmpty()) {
-            Diagram node = stack.pop();
-            if (!node.getMetaData().isEmpty()) {
-                node.getMetaData().forEach(metaData -> result.put(metaData, node));
+    /**
+     * Games of transposition belong to diagram it transposes to, transposition keeps only games continuing through it.
+     */
+    private void gatherMetadataFromTree(Diagram root) {
+        root.subtree().forEach(node -> {
+            if (node.getTransposition().isPresent()) {
+                node.getTransposedMetaData().forEach(metaData -> addTransposition(metaData, node));
+            } else {
+                node.getMetaData().forEach(metaData -> games.put(metaData, node));
             }
-            if (!node.isLazy()) {
-                stack.addAll(node.getNextDiagrams());
-            }
-        }
-        return result;
+        });
+        transpositions.values().forEach(list -> list.sort(Comparator.comparingInt(Diagram::depth)));
+    }
+
+    private void addTransposition(MetaData metaData, Diagram transposition) {
+        transpositions.computeIfAbsent(metaData, key -> new ArrayList<>()).add(transposition);
     }
 
     public void put(MetaData metaData, Diagram diagram) {
@@ -35,10 +40,23 @@ public class GamesRepository {
 
     public void update(GamesUpdateEvent event) {
         games.putAll(event.gamesMap());
+        event.transpositionsMap().forEach((metaData, list) -> list.forEach(diagram -> addTransposition(metaData, diagram)));
     }
 
+    /**
+     * @return diagram of game, reached by moves of game when game continued through transpositions
+     */
     public Diagram get(MetaData metaData) {
-        return games.get(metaData);
+        Diagram diagram = games.get(metaData);
+        List<Diagram> entered = transpositions.get(metaData);
+        if (diagram == null || entered == null) {
+            return diagram;
+        }
+        Diagram path = entered.get(0);
+        for (Diagram transposition : entered.subList(1, entered.size())) {
+            path = transposition.reachedThrough(path);
+        }
+        return diagram.reachedThrough(path);
     }
 
     public List<GameData> getGameData() {
@@ -3,30 +3,41 @@ package data.model.games;
 import data.model.diagrams.Diagram;
 import data.model.metadata.MetaData;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-public record GamesUpdateEvent(Map<MetaData, Diagram> gamesMap) {
-    public GamesUpdateEvent join(GamesUpdateEvent gamesUpdateEvent) {
-        Map<MetaData, Diagram> result = new java.util.HashMap<>(Map.copyOf(gamesMap));
-        result.putAll(gamesUpdateEvent.gamesMap());
-        return new GamesUpdateEvent(result);
+/**
+ * Diagrams in which games are stored after tree change, and transpositions through which games continued into
+ * diagrams of other move order. Event created by {@link #create()} is mutable and can collect changes of many
+ * insertions before it is applied to {@link GamesRepository}.
+ */
+public record GamesUpdateEvent(Map<MetaData, Diagram> gamesMap, Map<MetaData, List<Diagram>> transpositionsMap) {
+    public void put(MetaData metaData, Diagram diagram) {
+        gamesMap.put(metaData, diagram);
     }
 
-    public static GamesUpdateEvent of(List<MetaData> list, Diagram diagram) {
-        Map<MetaData, Diagram> result = new HashMap<>();
-        list.forEach(metaData -> result.put(metaData, diagram));
-        return new GamesUpdateEvent(result);
+    public void putAll(List<MetaData> list, Diagram diagram) {
+        list.forEach(metaData -> gamesMap.put(metaData, diagram));
     }
 
-    public static GamesUpdateEvent of(MetaData metadata, Diagram diagram) {
-        Map<MetaData, Diagram> result = new HashMap<>();
-        result.put(metadata, diagram);
-        return new GamesUpdateEvent(result);
+    /**
+     * Records transposition through which game continued, in order of moves of game.
+     */
+    public void addTransposition(MetaData metaData, Diagram transposition) {
+        transpositionsMap.computeIfAbsent(metaData, key -> new ArrayList<>()).add(transposition);
+    }
+
+    public boolean isEmpty() {
+        return gamesMap.isEmpty() && transpositionsMap.isEmpty();
+    }
+
+    public static GamesUpdateEvent create() {
+        return new GamesUpdateEvent(new HashMap<>(), new HashMap<>());
     }
 
     public static GamesUpdateEvent empty() {
-        return new GamesUpdateEvent(Map.of());
+        return new GamesUpdateEvent(Map.of(), Map.of());
     }
 }
@@ -58,10 +58,18 @@ public class MenuFactory {
         showGamesItem.addActionListener(e -> controller.showGames());
         featureMenu.add(showGamesItem);
 
+        JMenuItem showArenaItem = new JMenuItem("Show arena");
+        showArenaItem.addActionListener(e -> controller.showArena());
+        featureMenu.add(showArenaItem);
+
         JMenuItem insertPGNItem = new JMenuItem("Insert pgn");
         insertPGNItem.addActionListener(e -> controller.insertPGN(dialogManager.getFilename()));
         featureMenu.add(insertPGNItem);
 
+        JCheckBoxMenuItem mergeTranspositionsItem = new JCheckBoxMenuItem("Merge transpositions");
+        mergeTranspositionsItem.addActionListener(e -> controller.setMergeTranspositions(mergeTranspositionsItem.isSelected()));
+        featureMenu.add(mergeTranspositionsItem);
+
         return featureMenu;
     }
 }
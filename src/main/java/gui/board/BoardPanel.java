@@ -4,7 +4,7 @@ import chess.Position;
 import chess.board.lowlevel.Board;
 import chess.board.features.ChessBoardCoverageAnalyzer;
 import chess.board.features.ChessBoardWeakPointsAnalyzer;
-import chess.moves.valid.ValidMove;
+import chess.moves.packed.PackedMove;
 import chess.pieces.Piece;
 import data.annotations.FieldAnnotation;
 import data.annotations.GraphicAnnotation;
@@ -14,6 +14,7 @@ import gui.scaling.*;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.Arrays;
 import java.util.Map;
 
 import static java.lang.Math.min;
@@ -145,8 +146,8 @@ public class BoardPanel extends JPanel {
     }
 
     private void paintLegalMoves(Graphics g) {
-        diagram.getBoard().getGenerator().getAllPossibleExecutableMoves().stream()
-                .map(ValidMove::getRepresentation)
+        Arrays.stream(diagram.getBoard().getGenerator().getLegalMoves())
+                .mapToObj(PackedMove::toRawMove)
                 .map(rawMove -> new ScaledArrow(
                         new ScaledPosition(rawMove.getStartPosition(), scale),
                         new ScaledPosition(rawMove.getEndPosition(), scale),
@@ -156,8 +157,9 @@ public class BoardPanel extends JPanel {
     }
 
     private void paintWeakPoints(Graphics g) {
-        new ChessBoardWeakPointsAnalyzer(diagram.getBoard()).getWeakPoints(chess.color.Color.white).forEach(position -> paintWeakPoint(position, g, Color.RED));
-        new ChessBoardWeakPointsAnalyzer(diagram.getBoard()).getWeakPoints(chess.color.Color.black).forEach(position -> paintWeakPoint(position, g, Color.GREEN));
+        ChessBoardWeakPointsAnalyzer analyzer = new ChessBoardWeakPointsAnalyzer(diagram.getBoard());
+        analyzer.getWeakPoints(chess.color.Color.white).forEach(position -> paintWeakPoint(position, g, Color.RED));
+        analyzer.getWeakPoints(chess.color.Color.black).forEach(position -> paintWeakPoint(position, g, Color.GREEN));
     }
 
     private void paintWeakPoint(Position position, Graphics g, Color color) {
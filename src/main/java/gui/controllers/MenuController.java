@@ -56,10 +56,8 @@ public class MenuController {
             dataModel.asTree().notifyListenersOnNewTree(dataModel.getActualNode());
             boardPanel.setDiagram(dataModel.getActualNode());
             if (parsedPGNS.size() > 1) {
-                for (int i = 1; i < parsedPGNS.size(); i++) {
-                    dataModel.insert(parsedPGNS.get(i).moves().orElseThrow(), parsedPGNS.get(i).metadata());
-                    dataModel.asTree().notifyListenersOnNewTree(dataModel.getActualNode().getRoot());
-                }
+                dataModel.insertAll(parsedPGNS.subList(1, parsedPGNS.size()).iterator());
+                dataModel.asTree().notifyListenersOnNewTree(dataModel.getActualNode().getRoot());
             }
         } catch (FileNotFoundException e) {
             Log.log().warn("file not found");
@@ -92,12 +90,7 @@ public class MenuController {
             Iterator<ParsedPGN> pgnParser = fileManager.loadPagedPGN(filename);
             new TimeLogRunnable(
                     () -> {
-                        int size = 0;
-                        while (pgnParser.hasNext()) {
-                            ParsedPGN parsedPGN = pgnParser.next();
-                            dataModel.insert(parsedPGN.moves().orElseThrow(), parsedPGN.metadata());
-                            size++;
-                        }
+                        int size = dataModel.insertAll(pgnParser);
                         boardPanel.setDiagram(dataModel.getActualNode());
                         dataModel.asTree().notifyListenersOnNewTree(dataModel.getActualNode().getRoot());
                         return size;
@@ -109,11 +102,22 @@ public class MenuController {
         }
     }
 
+    public void setMergeTranspositions(boolean mergeTranspositions) {
+        dataModel.setMergeTranspositions(mergeTranspositions);
+    }
+
     public void showGames() {
         gamesFrame.refresh();
         gamesFrame.setVisible(true);
     }
 
+    public void showArena() {
+        JFrame arenaFrame = new JFrame("Arena");
+        arenaFrame.add(new JScrollPane(new JTree(dataModel.arenaAsTree())));
+        arenaFrame.setSize(320, 480);
+        arenaFrame.setVisible(true);
+    }
+
     public void selectGame(MetaData metaData) {
         selectNode(dataModel.getGames().get(metaData));
     }
@@ -1,6 +1,7 @@
 package gui.option;
 
 import data.model.diagrams.Diagram;
+import data.model.diagrams.DiagramNode;
 import gui.controllers.Controller;
 import log.Log;
 
@@ -23,11 +24,12 @@ public class TreeMouseListener implements MouseListener {
     public void mouseClicked(MouseEvent e) {
         int selRow = tree.getRowForLocation(e.getX(), e.getY());
         TreePath selPath = tree.getPathForLocation(e.getX(), e.getY());
-        if (selRow != -1 && e.getClickCount() == 2 && e.getButton() == MouseEvent.BUTTON1) {
-            controller.setActualNode((Diagram) selPath.getLastPathComponent());
+        if (selRow != -1 && e.getClickCount() == 2 && e.getButton() == MouseEvent.BUTTON1
+                && selPath.getLastPathComponent() instanceof Diagram diagram) {
+            controller.setActualNode(diagram);
         }
         if (selRow != -1 && e.getClickCount() == 2 && e.getButton() == MouseEvent.BUTTON3) {
-            ((Diagram) selPath.getLastPathComponent()).setAsBest();
+            ((DiagramNode) selPath.getLastPathComponent()).setAsBest();
         }
     }
 
@@ -1,14 +1,17 @@
 package chess;
 
 import chess.board.ChessBoard;
+import chess.perft.Perft;
+import chess.perft.PerftCache;
+import chess.perft.PerftResult;
 import chess.formats.fen.FENParser;
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class PerftTest {
+    private static final int CACHE_MEGABYTES = 64;
 
     void perftCase(String fen, long expected, int n) {
         long actual = timedPerft(FENParser.getInstance().parseFEN(fen), n);
@@ -16,26 +19,28 @@ public class PerftTest {
         assertEquals(expected, actual);
     }
 
-    long perft(ChessBoard board, int n) {
-        if (n == 1) {
-            return board.getGenerator().getAllPossibleExecutableMoves().size();
-        } else {
-            return board.getGenerator().getAllPossibleExecutableMoves().stream()
-                    .mapToLong(move -> perft(board.makeMove(move), n - 1))
-                    .sum();
-        }
+    void cachedPerftCase(String fen, long expected, int n) {
+        PerftCache cache = new PerftCache(CACHE_MEGABYTES);
+        PerftResult result = new Perft(cache).perft(FENParser.getInstance().parseFEN(fen), n);
+        System.out.println(result);
+        System.out.println(cache);
+        assertEquals(expected, result.nodes());
     }
 
     long timedPerft(ChessBoard board, int n) {
-        long startTime = System.nanoTime();
-        long result = perft(board, n);
-        long endTime = System.nanoTime();
-
-        long nanoDuration = (endTime - startTime);
-        double secondDuration = ((double) nanoDuration / Math.pow(10, 9));
-        double nodesPerSec = ((double) result / secondDuration);
-        System.out.println("Perft(" + n + ") in time " + secondDuration + "s and " + result + " nodes resulting with " + nodesPerSec + "nps");
-        return result;
+        PerftResult result = new Perft().perft(board, n);
+        System.out.println(result);
+        return result.nodes();
+    }
+
+    @Test
+    void divideShouldSumToPerftTest() {
+        PerftResult result = new Perft().divide(new ChessBoard(), 3);
+
+        assertEquals(20, result.divide().size());
+        assertEquals(8902, result.nodes());
+        assertEquals(result.nodes(), result.divide().values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(600, result.divide().get("e2-e4"));
     }
 
     double deviation(long expected, long actual) {
@@ -71,10 +76,9 @@ public class PerftTest {
             perftCase(START_FEN, 4865609, 5);
         }
 
-        @Disabled
         @Test
         void perft6Test() {
-            perftCase(START_FEN, 119060324, 6);
+            cachedPerftCase(START_FEN, 119060324, 6);
         }
     }
 
@@ -106,6 +110,11 @@ public class PerftTest {
         void perft5Test() {
             perftCase(END_FEN, 674624, 5);
         }
+
+        @Test
+        void perft6Test() {
+            cachedPerftCase(END_FEN, 11030083, 6);
+        }
     }
 
     @Nested
@@ -131,6 +140,11 @@ public class PerftTest {
         void perft4Test() {
             perftCase(MID_FEN, 422333, 4);
         }
+
+        @Test
+        void perft5Test() {
+            cachedPerftCase(MID_FEN, 15833292, 5);
+        }
     }
 
     @Nested
@@ -156,5 +170,10 @@ public class PerftTest {
         void perft4Test() {
             perftCase(KIWIPETE_FEN, 4085603, 4);
         }
+
+        @Test
+        void perft5Test() {
+            cachedPerftCase(KIWIPETE_FEN, 193690690, 5);
+        }
     }
 }
@@ -0,0 +1,83 @@
+package chess.board;
+
+import chess.Position;
+import chess.board.lowlevel.Bitboards;
+import chess.board.lowlevel.Board;
+import chess.color.Color;
+import chess.formats.fen.FENParser;
+import chess.moves.raw.RawMove;
+import chess.results.ValidMoveResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedChessBoardTest {
+
+    ChessBoard play(ChessBoard chessBoard, int startX, int startY, int endX, int endY) {
+        return chessBoard.makeMove(RawMove.of(Position.of(startX, startY), Position.of(endX, endY)))
+                .validate()
+                .map(ValidMoveResult::getResult)
+                .orElseThrow();
+    }
+
+    @Test
+    void shouldRoundTripParsedPositionsTest() {
+        List<String> fens = List.of(
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - ",
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - ",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - ",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - ",
+                "8/P7/8/8/8/8/8/8 b - - "
+        );
+        for (String fen : fens) {
+            ChessBoard chessBoard = FENParser.getInstance().parseFEN(fen);
+            PackedChessBoard packed = PackedChessBoard.of(chessBoard);
+
+            assertEquals(chessBoard, packed.toChessBoard(), fen);
+            assertEquals(packed, PackedChessBoard.of(packed.toChessBoard()), fen);
+        }
+    }
+
+    @Test
+    void shouldKeepStateTest() {
+        ChessBoard chessBoard = FENParser.getInstance().parseFEN("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - ");
+        PackedChessBoard packed = PackedChessBoard.of(chessBoard);
+
+        assertEquals(Color.white, packed.getColor());
+        assertEquals(chessBoard.getCastleRequirements().getMask(), packed.getCastleMask());
+        assertEquals(Bitboards.square(7, 1), packed.getKingSquare(Color.white));
+        assertEquals(Bitboards.square(5, 8), packed.getKingSquare(Color.black));
+        assertEquals(Board.BQUEEN, packed.read(Bitboards.square(1, 3)));
+        assertEquals(Board.EMPTY, packed.read(Bitboards.square(1, 6)));
+        assertEquals(Board.WKNIGHT, packed.read(Bitboards.square(8, 6)));
+        assertEquals(-1, PackedChessBoard.of(ChessBoard.getBlank(Color.white)).getKingSquare(Color.black));
+    }
+
+    @Test
+    void shouldRestoreEnPassantTest() {
+        ChessBoard chessBoard = new ChessBoard();
+        chessBoard = play(chessBoard, 5, 2, 5, 4);
+        chessBoard = play(chessBoard, 1, 7, 1, 6);
+        chessBoard = play(chessBoard, 5, 4, 5, 5);
+        chessBoard = play(chessBoard, 4, 7, 4, 5);
+        PackedChessBoard packed = PackedChessBoard.of(chessBoard);
+
+        assertEquals(4, packed.getEnPassantFile());
+        ChessBoard restored = packed.toChessBoard();
+        assertEquals(chessBoard, restored);
+        assertEquals(chessBoard.getGenerator().getAllPossibleExecutableMoves().size(),
+                restored.getGenerator().getAllPossibleExecutableMoves().size());
+    }
+
+    @Test
+    void transpositionsShouldBeEqualTest() {
+        ChessBoard first = play(play(play(new ChessBoard(), 7, 1, 6, 3), 7, 8, 6, 6), 2, 1, 3, 3);
+        ChessBoard second = play(play(play(new ChessBoard(), 2, 1, 3, 3), 7, 8, 6, 6), 7, 1, 6, 3);
+
+        assertEquals(PackedChessBoard.of(first), PackedChessBoard.of(second));
+        assertEquals(PackedChessBoard.of(first).hashCode(), PackedChessBoard.of(second).hashCode());
+        assertNotEquals(PackedChessBoard.of(new ChessBoard()), PackedChessBoard.of(first));
+    }
+}
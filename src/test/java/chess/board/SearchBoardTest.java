@@ -0,0 +1,66 @@
+package chess.board;
+
+import chess.Position;
+import chess.formats.fen.FENParser;
+import chess.moves.raw.RawMove;
+import chess.moves.valid.executable.ExecutableMove;
+import chess.results.ValidMoveResult;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchBoardTest {
+    private static final String KIWIPETE_FEN = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - ";
+    private static final String PROMOTION_FEN = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq -";
+
+    void assertMatchesImmutableBoard(ChessBoard chessBoard, int depth) {
+        SearchBoard searchBoard = new SearchBoard(chessBoard);
+        assertMatchesImmutableBoard(chessBoard, searchBoard, depth);
+        assertEquals(0, searchBoard.getPly());
+        assertEquals(chessBoard, searchBoard.toChessBoard());
+    }
+
+    void assertMatchesImmutableBoard(ChessBoard chessBoard, SearchBoard searchBoard, int depth) {
+        if (depth == 0) {
+            return;
+        }
+        for (ExecutableMove move : chessBoard.getGenerator().getAllPossibleExecutableMoves()) {
+            ChessBoard expected = chessBoard.makeMove(move);
+            searchBoard.doMove(move);
+            assertEquals(expected, searchBoard.toChessBoard(), move.getRepresentation().toString());
+            assertMatchesImmutableBoard(expected, searchBoard, depth - 1);
+            searchBoard.undoMove();
+            assertEquals(chessBoard, searchBoard.toChessBoard());
+        }
+    }
+
+    @Test
+    void shouldMatchMakeMoveOnStartTest() {
+        assertMatchesImmutableBoard(new ChessBoard(), 3);
+    }
+
+    @Test
+    void shouldMatchMakeMoveWithCastlesTest() {
+        assertMatchesImmutableBoard(FENParser.getInstance().parseFEN(KIWIPETE_FEN), 2);
+    }
+
+    @Test
+    void shouldMatchMakeMoveWithPromotionsTest() {
+        assertMatchesImmutableBoard(FENParser.getInstance().parseFEN(PROMOTION_FEN), 2);
+    }
+
+    @Test
+    void shouldRestoreEnPassantCaptureTest() {
+        ChessBoard chessBoard = new ChessBoard()
+                .makeMove(RawMove.of(Position.of(5, 2), Position.of(5, 4))).validate().map(ValidMoveResult::getResult).orElseThrow()
+                .makeMove(RawMove.of(Position.of(1, 7), Position.of(1, 6))).validate().map(ValidMoveResult::getResult).orElseThrow()
+                .makeMove(RawMove.of(Position.of(5, 4), Position.of(5, 5))).validate().map(ValidMoveResult::getResult).orElseThrow()
+                .makeMove(RawMove.of(Position.of(4, 7), Position.of(4, 5))).validate().map(ValidMoveResult::getResult).orElseThrow();
+        assertMatchesImmutableBoard(chessBoard, 2);
+    }
+
+    @Test
+    void shouldThrowOnUndoWithoutMoveTest() {
+        assertThrows(IllegalStateException.class, () -> new SearchBoard(new ChessBoard()).undoMove());
+    }
+}
@@ -0,0 +1,81 @@
+package chess.board;
+
+import chess.Position;
+import chess.board.requirements.CastleRequirements;
+import chess.color.Color;
+import chess.formats.fen.FENParser;
+import chess.moves.raw.RawMove;
+import chess.results.ValidMoveResult;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZobristTest {
+
+    ChessBoard play(ChessBoard chessBoard, int startX, int startY, int endX, int endY) {
+        return chessBoard.makeMove(RawMove.of(Position.of(startX, startY), Position.of(endX, endY)))
+                .validate()
+                .map(ValidMoveResult::getResult)
+                .orElseThrow();
+    }
+
+    @Test
+    void transpositionShouldHaveSameKeyTest() {
+        ChessBoard chessBoard = new ChessBoard();
+        chessBoard = play(chessBoard, 7, 1, 6, 3);
+        chessBoard = play(chessBoard, 7, 8, 6, 6);
+        chessBoard = play(chessBoard, 6, 3, 7, 1);
+        chessBoard = play(chessBoard, 6, 6, 7, 8);
+
+        assertEquals(new ChessBoard().zobrist(), chessBoard.zobrist());
+        assertEquals(new ChessBoard(), chessBoard);
+    }
+
+    @Test
+    void incrementalKeyShouldMatchParsedPositionTest() {
+        ChessBoard chessBoard = new ChessBoard();
+        chessBoard = play(chessBoard, 5, 2, 5, 4);
+        chessBoard = play(chessBoard, 5, 7, 5, 5);
+        chessBoard = play(chessBoard, 7, 1, 6, 3);
+
+        ChessBoard parsed = FENParser.getInstance().parseFEN("rnbqkbnr/pppp1ppp/8/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - ");
+        assertEquals(parsed.zobrist(), chessBoard.zobrist());
+    }
+
+    @Test
+    void sideToMoveShouldChangeKeyTest() {
+        assertNotEquals(ChessBoard.getBlank(Color.white).zobrist(), ChessBoard.getBlank(Color.black).zobrist());
+    }
+
+    @Test
+    void castleRightsShouldChangeKeyTest() {
+        ChessBoard chessBoard = new ChessBoard();
+        ChessBoard withoutCastles = new ChessBoard(
+                chessBoard.getBoard(),
+                Color.white,
+                new CastleRequirements(false, true, true, true),
+                null,
+                Position.of(5, 1),
+                Position.of(5, 8));
+
+        assertNotEquals(chessBoard.zobrist(), withoutCastles.zobrist());
+        assertNotEquals(chessBoard, withoutCastles);
+    }
+
+    @Test
+    void enPassantShouldChangeKeyOnlyWhenCapturePossibleTest() {
+        ChessBoard chessBoard = new ChessBoard();
+        chessBoard = play(chessBoard, 5, 2, 5, 4);
+        chessBoard = play(chessBoard, 7, 8, 6, 6);
+        chessBoard = play(chessBoard, 5, 4, 5, 5);
+        chessBoard = play(chessBoard, 4, 7, 4, 5);
+
+        ChessBoard parsed = FENParser.getInstance().parseFEN("rnbqkb1r/ppp1pppp/5n2/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq - ");
+        assertNotEquals(parsed.zobrist(), chessBoard.zobrist());
+        assertNotEquals(parsed, chessBoard);
+
+        ChessBoard afterDoublePush = play(new ChessBoard(), 5, 2, 5, 4);
+        ChessBoard parsedAfterDoublePush = FENParser.getInstance().parseFEN("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - ");
+        assertEquals(parsedAfterDoublePush.zobrist(), afterDoublePush.zobrist());
+    }
+}
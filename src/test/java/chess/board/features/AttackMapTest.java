@@ -0,0 +1,59 @@
+package chess.board.features;
+
+import chess.Position;
+import chess.board.ChessBoard;
+import chess.color.Color;
+import chess.formats.fen.FENParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttackMapTest {
+
+    private static final String WEAK_POINTS_FEN = "4k3/8/8/8/8/2n5/1P6/R3K3 w - - ";
+
+    @Test
+    void countsShouldMatchPieceAttacksTest() {
+        List<String> fens = List.of(
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - ",
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - ",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - "
+        );
+        for (String fen : fens) {
+            ChessBoard chessBoard = FENParser.getInstance().parseFEN(fen);
+            AttackMap attackMap = chessBoard.getAttackMap();
+            for (Color color : List.of(Color.white, Color.black)) {
+                for (Position position : chessBoard.getUtility().getAllPositions()) {
+                    long expected = chessBoard.getUtility().getPiecesOfColor(color).stream()
+                            .filter(piece -> piece.getAttackedPositions(chessBoard).contains(position))
+                            .count();
+                    assertEquals(expected, attackMap.getAttackerCount(color, position), fen + " " + position);
+                }
+            }
+        }
+    }
+
+    @Test
+    void undefendedPiecesShouldBeWeakPointsTest() {
+        ChessBoard chessBoard = FENParser.getInstance().parseFEN(WEAK_POINTS_FEN);
+        ChessBoardWeakPointsAnalyzer analyzer = new ChessBoardWeakPointsAnalyzer(chessBoard);
+
+        assertEquals(Set.of(Position.of(1, 1), Position.of(2, 2)), analyzer.getWeakPoints(Color.white));
+        assertEquals(Set.of(Position.of(5, 8), Position.of(3, 3)), analyzer.getWeakPoints(Color.black));
+    }
+
+    @Test
+    void coverageShouldCompareAttackerCountsTest() {
+        ChessBoard chessBoard = FENParser.getInstance().parseFEN(WEAK_POINTS_FEN);
+
+        Map<Position, ChessBoardCoverageAnalyzer.Coverage> coverage = new ChessBoardCoverageAnalyzer(chessBoard).getBoardCoverage(Color.white);
+        assertEquals(ChessBoardCoverageAnalyzer.Coverage.STRONG, coverage.get(Position.of(1, 3)));
+        assertEquals(ChessBoardCoverageAnalyzer.Coverage.NEUTRAL, coverage.get(Position.of(1, 4)));
+        assertEquals(ChessBoardCoverageAnalyzer.Coverage.WEAK, coverage.get(Position.of(2, 5)));
+        assertEquals(ChessBoardCoverageAnalyzer.Coverage.NEUTRAL, coverage.get(Position.of(8, 5)));
+    }
+}
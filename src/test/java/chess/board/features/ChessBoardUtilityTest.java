@@ -0,0 +1,37 @@
+package chess.board.features;
+
+import chess.Position;
+import chess.board.ChessBoard;
+import chess.color.Color;
+import chess.formats.fen.FENParser;
+import chess.pieces.Piece;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChessBoardUtilityTest {
+
+    @Test
+    void startPositionShouldHaveSixteenPiecesOfEachColorTest() {
+        ChessBoardUtility utility = new ChessBoard().getUtility();
+
+        assertEquals(16, utility.getPiecesOfColor(Color.white).size());
+        assertEquals(16, utility.getPiecesOfColor(Color.black).size());
+        assertTrue(utility.getPiecesOfColor(Color.black).stream().allMatch(piece -> piece.getColor().isBlack()));
+    }
+
+    @Test
+    void piecesShouldMatchFieldsTest() {
+        ChessBoard chessBoard = FENParser.getInstance().parseFEN("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - ");
+
+        Set<Position> white = chessBoard.getUtility().getPiecesOfColor(Color.white).stream()
+                .map(Piece::getPosition)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of(Position.of(1, 5), Position.of(2, 5), Position.of(2, 4), Position.of(5, 2), Position.of(7, 2)), white);
+        chessBoard.getUtility().getPiecesOfColor(Color.black)
+                .forEach(piece -> assertEquals(piece, chessBoard.getField(piece.getPosition()).getPiece()));
+    }
+}
@@ -0,0 +1,57 @@
+package chess.board.features;
+
+import chess.board.ChessBoard;
+import chess.board.lowlevel.Bitboards;
+import chess.formats.fen.FENParser;
+import chess.moves.packed.MoveList;
+import chess.moves.packed.PackedMove;
+import chess.moves.valid.executable.ExecutableMove;
+import chess.pieces.Piece;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutableMoveGeneratorTest {
+    private static final List<String> FENS = List.of(
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - ",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - ",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - ",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - ",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - ",
+            "8/8/8/KP5r/1R3pPk/8/8/8 b - g3 "
+    );
+
+    @Test
+    void findLegalMoveShouldMatchGeneratedMovesTest() {
+        for (String fen : FENS) {
+            ChessBoard chessBoard = FENParser.getInstance().parseFEN(fen);
+            assertSameMoves(chessBoard, fen);
+            for (ExecutableMove move : chessBoard.getGenerator().getAllPossibleExecutableMoves()) {
+                assertSameMoves(chessBoard.makeMove(move), fen + " " + move);
+            }
+        }
+    }
+
+    private void assertSameMoves(ChessBoard chessBoard, String message) {
+        MoveList generated = new MoveList();
+        chessBoard.getGenerator().getAllPossibleMoves(generated);
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < generated.size(); i++) {
+            int move = generated.get(i);
+            if (PackedMove.flag(move) == PackedMove.PROMOTION) {
+                move = PackedMove.promotion(PackedMove.from(move), PackedMove.to(move), Piece.Type.QUEEN);
+            }
+            expected.put(PackedMove.from(move) * Bitboards.SQUARES + PackedMove.to(move), move);
+        }
+        for (int from = 0; from < Bitboards.SQUARES; from++) {
+            for (int to = 0; to < Bitboards.SQUARES; to++) {
+                int expectedMove = expected.getOrDefault(from * Bitboards.SQUARES + to, ExecutableMoveGenerator.NO_MOVE);
+                assertEquals(expectedMove, chessBoard.getGenerator().findLegalMove(from, to), message);
+            }
+        }
+    }
+}
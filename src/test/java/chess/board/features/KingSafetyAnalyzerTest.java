@@ -0,0 +1,64 @@
+package chess.board.features;
+
+import chess.Position;
+import chess.board.ChessBoard;
+import chess.color.Color;
+import chess.formats.fen.FENParser;
+import chess.pieces.Rook;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KingSafetyAnalyzerTest {
+
+    KingSafetyAnalyzer analyze(String fen) {
+        return FENParser.getInstance().parseFEN(fen).getKingSafety();
+    }
+
+    @Test
+    void pinnedPieceShouldMoveOnlyAlongPinTest() {
+        KingSafetyAnalyzer analyzer = analyze("4r2k/8/8/8/8/4R3/8/4K3 w - - ");
+
+        assertFalse(analyzer.isKingChecked());
+        assertTrue(analyzer.isKingSafeAfterMove(Position.of(5, 3), Position.of(5, 8)));
+        assertTrue(analyzer.isKingSafeAfterMove(Position.of(5, 3), Position.of(5, 5)));
+        assertFalse(analyzer.isKingSafeAfterMove(Position.of(5, 3), Position.of(1, 3)));
+    }
+
+    @Test
+    void checkShouldBeBlockedOrCapturedTest() {
+        KingSafetyAnalyzer analyzer = analyze("4r2k/8/8/8/8/8/R7/4K3 w - - ");
+
+        assertTrue(analyzer.isKingChecked());
+        assertTrue(analyzer.isKingSafeAfterMove(Position.of(1, 2), Position.of(5, 2)));
+        assertFalse(analyzer.isKingSafeAfterMove(Position.of(1, 2), Position.of(1, 8)));
+        assertFalse(analyzer.isKingSafeAfterMove(Position.of(5, 1), Position.of(5, 2)));
+        assertTrue(analyzer.isKingSafeAfterMove(Position.of(5, 1), Position.of(4, 1)));
+    }
+
+    @Test
+    void doubleCheckShouldAllowOnlyKingMovesTest() {
+        KingSafetyAnalyzer analyzer = analyze("4r2k/8/8/8/8/3n4/R7/4K3 w - - ");
+
+        assertFalse(analyzer.isKingSafeAfterMove(Position.of(1, 2), Position.of(5, 2)));
+        assertFalse(analyzer.isKingSafeAfterMove(Position.of(5, 1), Position.of(6, 2)));
+        assertTrue(analyzer.isKingSafeAfterMove(Position.of(5, 1), Position.of(4, 2)));
+    }
+
+    @Test
+    void enPassantShouldNotExposeKingOnRankTest() {
+        KingSafetyAnalyzer analyzer = analyze("7k/8/8/K2pP2r/8/8/8/8 w - - ");
+
+        assertFalse(analyzer.isKingSafeAfterEnPassantCapture(Position.of(5, 5), Position.of(4, 6)));
+        assertTrue(analyzer.isKingSafeAfterMove(Position.of(5, 5), Position.of(5, 6)));
+    }
+
+    @Test
+    void boardWithoutKingShouldBeSafeTest() {
+        ChessBoard chessBoard = ChessBoard.getBlank(Color.white)
+                .put(new Rook(Color.white, Position.of(1, 1)));
+
+        assertFalse(chessBoard.getKingSafety().isKingChecked());
+        assertTrue(chessBoard.getKingSafety().isKingSafeAfterMove(Position.of(1, 1), Position.of(1, 8)));
+    }
+}
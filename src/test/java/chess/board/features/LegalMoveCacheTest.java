@@ -0,0 +1,67 @@
+package chess.board.features;
+
+import chess.Position;
+import chess.board.ChessBoard;
+import chess.formats.fen.FENParser;
+import chess.moves.raw.RawMove;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LegalMoveCacheTest {
+    private static final String KIWIPETE_FEN = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - ";
+
+    @Test
+    void shouldCountHitsAndMissesTest() {
+        LegalMoveCache cache = new LegalMoveCache(8);
+        ChessBoard chessBoard = FENParser.getInstance().parseFEN(KIWIPETE_FEN);
+
+        int[] first = cache.get(chessBoard);
+        int[] second = cache.get(FENParser.getInstance().parseFEN(KIWIPETE_FEN));
+
+        assertEquals(48, first.length);
+        assertSame(first, second);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedPositionTest() {
+        LegalMoveCache cache = new LegalMoveCache(2);
+        ChessBoard start = new ChessBoard();
+        ChessBoard kiwipete = FENParser.getInstance().parseFEN(KIWIPETE_FEN);
+        ChessBoard end = FENParser.getInstance().parseFEN("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - ");
+
+        cache.get(start);
+        cache.get(kiwipete);
+        cache.get(start);
+        cache.get(end);
+        assertEquals(2, cache.size());
+
+        cache.get(start);
+        assertEquals(2, cache.getHits());
+        cache.get(kiwipete);
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    void shouldRejectNonPositiveCapacityTest() {
+        assertThrows(IllegalArgumentException.class, () -> new LegalMoveCache(0));
+    }
+
+    @Test
+    void shouldValidateMoveWithCacheOnlyWhenGivenTest() {
+        LegalMoveCache cache = new LegalMoveCache(8);
+        ChessBoard chessBoard = new ChessBoard();
+        RawMove e4 = RawMove.of(Position.of(5, 2), Position.of(5, 4));
+
+        assertTrue(chessBoard.makeMove(e4).isValid());
+        assertEquals(0, cache.size());
+
+        assertTrue(chessBoard.makeMove(e4, cache).isValid());
+        assertTrue(chessBoard.makeMove(e4, cache).isValid());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+}
@@ -0,0 +1,72 @@
+package chess.board.features;
+
+import chess.board.ChessBoard;
+import chess.formats.fen.FENParser;
+import chess.moves.packed.MoveList;
+import chess.moves.packed.PackedMove;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StagedMoveIteratorTest {
+    private static final List<String> FENS = List.of(
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - ",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - ",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - ",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - ",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - ",
+            "8/8/8/KP5r/1R3pPk/8/8/8 b - g3 "
+    );
+
+    @Test
+    void shouldYieldSameMovesAsGeneratorTest() {
+        for (String fen : FENS) {
+            ChessBoard chessBoard = FENParser.getInstance().parseFEN(fen);
+            MoveList expected = new MoveList();
+            chessBoard.getGenerator().getAllPossibleMoves(expected);
+            Set<Integer> expectedSet = new HashSet<>();
+            for (int i = 0; i < expected.size(); i++) {
+                expectedSet.add(expected.get(i));
+            }
+
+            List<Integer> staged = new ArrayList<>();
+            chessBoard.getGenerator().getStagedMoves().forEachRemaining((int move) -> staged.add(move));
+
+            assertEquals(expected.size(), staged.size(), fen);
+            assertEquals(expectedSet, new HashSet<>(staged), fen);
+        }
+    }
+
+    @Test
+    void capturesShouldComeBeforeQuietMovesTest() {
+        ChessBoard chessBoard = FENParser.getInstance().parseFEN(FENS.get(1));
+        StagedMoveIterator moves = chessBoard.getGenerator().getStagedMoves();
+        boolean quiet = false;
+        while (moves.hasNext()) {
+            int move = moves.nextInt();
+            boolean capture = chessBoard.getBoard().read(PackedMove.to(move)) != 0
+                    || PackedMove.flag(move) == PackedMove.EN_PASSANT
+                    || PackedMove.flag(move) == PackedMove.PROMOTION;
+            assertFalse(capture && quiet);
+            quiet |= !capture;
+        }
+    }
+
+    @Test
+    void shouldDetectCheckmateAndStalemateTest() {
+        ExecutableMoveGenerator foolsMate = FENParser.getInstance()
+                .parseFEN("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - ").getGenerator();
+        ExecutableMoveGenerator stalemate = FENParser.getInstance().parseFEN("7k/5Q2/6K1/8/8/8/8/8 b - - ").getGenerator();
+
+        assertTrue(foolsMate.isCheckmate());
+        assertFalse(foolsMate.isStalemate());
+        assertTrue(stalemate.isStalemate());
+        assertFalse(stalemate.hasLegalMove());
+        assertTrue(new ChessBoard().getGenerator().hasLegalMove());
+    }
+}
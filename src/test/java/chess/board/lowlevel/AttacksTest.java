@@ -0,0 +1,49 @@
+package chess.board.lowlevel;
+
+import chess.Position;
+import chess.color.Color;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttacksTest {
+    private static final int[][] ROOK_STEPS = {{1, 0}, {0, 1}, {-1, 0}, {0, -1}};
+    private static final int[][] BISHOP_STEPS = {{1, 1}, {-1, 1}, {-1, -1}, {1, -1}};
+
+    @Test
+    void slidingTablesShouldMatchRayWalkTest() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 10_000; i++) {
+            int square = random.nextInt(Bitboards.SQUARES);
+            long occupancy = random.nextLong() & random.nextLong();
+            assertEquals(MagicTable.slide(square, ROOK_STEPS, occupancy), Attacks.rook(square, occupancy));
+            assertEquals(MagicTable.slide(square, BISHOP_STEPS, occupancy), Attacks.bishop(square, occupancy));
+        }
+    }
+
+    @Test
+    void rookOnEmptyBoardTest() {
+        assertEquals(14, Long.bitCount(Attacks.rook(Bitboards.square(4, 4), 0)));
+        assertEquals(13, Long.bitCount(Attacks.bishop(Bitboards.square(4, 4), 0)));
+    }
+
+    @Test
+    void attackersOfTest() {
+        Board board = Board.getStart();
+        long attackers = Attacks.attackersOf(board, Bitboards.square(6, 3), board.getOccupancy(), Color.white);
+
+        assertEquals(Bitboards.bit(Position.of(5, 2)) | Bitboards.bit(Position.of(7, 2)) | Bitboards.bit(Position.of(7, 1)), attackers);
+    }
+
+    @Test
+    void betweenAndLineTest() {
+        int a1 = Bitboards.square(1, 1);
+        int d4 = Bitboards.square(4, 4);
+
+        assertEquals(Bitboards.bit(Position.of(2, 2)) | Bitboards.bit(Position.of(3, 3)), Attacks.between(a1, d4));
+        assertEquals(0x8040201008040201L, Attacks.line(a1, d4));
+        assertEquals(0, Attacks.between(a1, Bitboards.square(2, 3)));
+    }
+}
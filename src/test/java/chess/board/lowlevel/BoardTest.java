@@ -0,0 +1,65 @@
+package chess.board.lowlevel;
+
+import chess.Position;
+import chess.color.Color;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardTest {
+
+    @Test
+    void shouldReadWhatWasWrittenTest() {
+        Board board = Board.getBlank();
+        board.write(Board.BQUEEN, Position.of(4, 5));
+
+        assertEquals(Board.BQUEEN, board.read(Position.of(4, 5)));
+        assertEquals(Board.EMPTY, board.read(Position.of(5, 4)));
+    }
+
+    @Test
+    void shouldOverwritePieceTest() {
+        Board board = Board.getStart();
+        board.write(Board.WKNIGHT, Position.of(4, 7));
+
+        assertEquals(Board.WKNIGHT, board.read(Position.of(4, 7)));
+        assertEquals(0, board.getPieces(Board.BPAWN) & Bitboards.bit(Position.of(4, 7)));
+        assertEquals(0, board.getOccupancy(Color.black) & Bitboards.bit(Position.of(4, 7)));
+        assertNotEquals(0, board.getOccupancy(Color.white) & Bitboards.bit(Position.of(4, 7)));
+    }
+
+    @Test
+    void shouldClearOccupancyWhenEmptyWrittenTest() {
+        Board board = Board.getStart();
+        board.write(Board.EMPTY, Position.of(5, 1));
+
+        assertEquals(Board.EMPTY, board.read(Position.of(5, 1)));
+        assertEquals(0, board.getPieces(Board.WKING));
+        assertEquals(31, Long.bitCount(board.getOccupancy()));
+    }
+
+    @Test
+    void startOccupancyTest() {
+        Board board = Board.getStart();
+
+        assertEquals(0x000000000000FFFFL, board.getOccupancy(Color.white));
+        assertEquals(0xFFFF000000000000L, board.getOccupancy(Color.black));
+        assertEquals(0x000000000000FF00L, board.getPieces(Board.WPAWN));
+    }
+
+    @Test
+    void copyShouldBeIndependentTest() {
+        Board board = Board.getStart();
+        Board copy = Board.getCopy(board);
+        copy.write(Board.EMPTY, Position.of(5, 2));
+
+        assertEquals(Board.WPAWN, board.read(Position.of(5, 2)));
+        assertNotEquals(board, copy);
+        assertEquals(board, Board.getStart());
+    }
+
+    @Test
+    void shouldRejectUnknownIdTest() {
+        assertThrows(IllegalArgumentException.class, () -> Board.getBlank().write((byte) 3, Position.of(1, 1)));
+    }
+}
@@ -9,6 +9,7 @@ import chess.pieces.King;
 import chess.pieces.Pawn;
 import chess.pieces.Rook;
 import chess.formats.fen.FENFactory;
+import chess.formats.fen.FENParser;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -46,4 +47,11 @@ class FENFactoryTest {
         String actual = FENFactory.getInstance().chessBoardToFEN(new ChessBoard());
         assertEquals(expected, actual);
     }
-}
\ No newline at end of file
+
+    @Test
+    void enPassantSquareShouldRoundTripTest() {
+        String fen = "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6";
+
+        assertEquals(fen, FENFactory.getInstance().chessBoardToFEN(FENParser.getInstance().parseFEN(fen)));
+    }
+}
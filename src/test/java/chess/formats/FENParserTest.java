@@ -9,6 +9,7 @@ import chess.pieces.King;
 import chess.pieces.Pawn;
 import chess.pieces.Rook;
 import chess.formats.fen.FENParser;
+import chess.moves.raw.RawMove;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -46,4 +47,47 @@ class FENParserTest {
         ChessBoard expected = new ChessBoard();
         assertEquals(expected, actual);
     }
-}
\ No newline at end of file
+
+    @Test
+    void parseFENWithEnPassant() {
+        String fen = "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3";
+        ChessBoard actual = FENParser.getInstance().parseFEN(fen);
+
+        assertEquals(6, actual.getEnPassantFile());
+        assertTrue(actual.makeMove(RawMove.of(Position.of(5, 5), Position.of(6, 6))).validate().isPresent());
+        assertFalse(actual.makeMove(RawMove.of(Position.of(5, 5), Position.of(4, 6))).validate().isPresent());
+        assertNotEquals(FENParser.getInstance().parseFEN("rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq - 0 3"), actual);
+    }
+
+    @Test
+    void ignoreEnPassantWithoutCapturingPawn() {
+        ChessBoard actual = FENParser.getInstance().parseFEN("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+
+        assertEquals(0, actual.getEnPassantFile());
+        assertEquals(FENParser.getInstance().parseFEN("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1"), actual);
+    }
+
+    @Test
+    void rejectInvalidEnPassantSquare() {
+        assertThrows(IllegalArgumentException.class,
+                () -> FENParser.getInstance().parseFEN("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e4 0 1"));
+    }
+
+    @Test
+    void rejectEnPassantSquareOfSideToMove() {
+        assertThrows(IllegalArgumentException.class,
+                () -> FENParser.getInstance().parseFEN("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e3 0 1"));
+        assertThrows(IllegalArgumentException.class,
+                () -> FENParser.getInstance().parseFEN("rnbqkbnr/ppp1pppp/8/3p4/8/8/PPPPPPPP/RNBQKBNR b KQkq d6 0 1"));
+    }
+
+    @Test
+    void rejectInvalidPiecePlacement() {
+        assertThrows(IllegalArgumentException.class,
+                () -> FENParser.getInstance().parseFEN("rnbqkbnr/pppppppp/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"));
+        assertThrows(IllegalArgumentException.class,
+                () -> FENParser.getInstance().parseFEN("rnbqkbnr/pppppppp/8/8/8/7/PPPPPPPP/RNBQKBNR w KQkq - 0 1"));
+        assertThrows(IllegalArgumentException.class,
+                () -> FENParser.getInstance().parseFEN("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKXNR w KQkq - 0 1"));
+    }
+}
@@ -0,0 +1,59 @@
+package chess.formats;
+
+import chess.Position;
+import chess.board.ChessBoard;
+import chess.formats.algebraic.LongAlgebraicFactory;
+import chess.formats.fen.FENParser;
+import chess.moves.raw.RawMove;
+import chess.moves.raw.RawPromotion;
+import chess.pieces.Piece;
+import data.model.DiagramController;
+import data.model.diagrams.Diagram;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongAlgebraicFactoryTest {
+    LongAlgebraicFactory factory = LongAlgebraicFactory.getInstance();
+
+    @Test
+    void moveNamesTest() {
+        ChessBoard chessBoard = FENParser.getInstance().parseFEN("4k3/P7/8/8/8/8/4P3/4K2R w K - ");
+
+        assertEquals(" e2-e4", factory.moveToLongAlgebraic(chessBoard, RawMove.of(Position.of(5, 2), Position.of(5, 4))));
+        assertEquals("Ke1-d1", factory.moveToLongAlgebraic(chessBoard, RawMove.of(Position.of(5, 1), Position.of(4, 1))));
+        assertEquals("O-O", factory.moveToLongAlgebraic(chessBoard, RawMove.of(Position.of(5, 1), Position.of(7, 1))));
+        assertEquals("a7-a8=N", factory.moveToLongAlgebraic(chessBoard,
+                new RawPromotion(Position.of(1, 7), Position.of(1, 8), Piece.Type.KNIGHT)));
+    }
+
+    @Test
+    void equalMovesShouldShareNameTest() {
+        RawMove move = RawMove.of(Position.of(7, 1), Position.of(6, 3));
+
+        String first = factory.moveToLongAlgebraic(new ChessBoard(), move);
+        String second = factory.moveToLongAlgebraic(Piece.Type.KNIGHT, RawMove.of(Position.of(7, 1), Position.of(6, 3)));
+
+        assertSame(first, second);
+        assertNotEquals(first, factory.moveToLongAlgebraic(Piece.Type.ROOK, move));
+    }
+
+    @Test
+    void diagramsShouldShareMoveNameTest() {
+        RawMove e4 = RawMove.of(Position.of(5, 2), Position.of(5, 4));
+        DiagramController controller = new DiagramController();
+        Diagram first = controller.makeMove(new Diagram(), e4, null).diagram();
+        Diagram second = controller.makeMove(new Diagram(), e4, null).diagram();
+
+        assertEquals(" e2-e4", first.getMoveName());
+        assertSame(first.getMoveName(), second.getMoveName());
+        assertEquals("Root", first.getRoot().getMoveName());
+    }
+
+    @Test
+    void moveFromEmptyFieldShouldFailTest() {
+        RawMove move = RawMove.of(Position.of(5, 4), Position.of(5, 5));
+
+        assertThrows(IllegalArgumentException.class, () -> factory.moveToLongAlgebraic(new ChessBoard(), move));
+    }
+}
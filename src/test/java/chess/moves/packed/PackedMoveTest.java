@@ -0,0 +1,89 @@
+package chess.moves.packed;
+
+import chess.Position;
+import chess.board.ChessBoard;
+import chess.board.lowlevel.Bitboards;
+import chess.formats.fen.FENParser;
+import chess.moves.raw.RawMove;
+import chess.moves.raw.RawPromotion;
+import chess.moves.valid.executable.Castle;
+import chess.moves.valid.executable.ExecutableMove;
+import chess.moves.valid.executable.Promotion;
+import chess.pieces.Piece;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedMoveTest {
+    private static final String KIWIPETE_FEN = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - ";
+
+    @Test
+    void shouldKeepFieldsTest() {
+        int move = PackedMove.promotion(Bitboards.square(1, 7), Bitboards.square(2, 8), Piece.Type.KNIGHT);
+
+        assertEquals(Bitboards.square(1, 7), PackedMove.from(move));
+        assertEquals(Bitboards.square(2, 8), PackedMove.to(move));
+        assertEquals(PackedMove.PROMOTION, PackedMove.flag(move));
+        assertEquals(Piece.Type.KNIGHT, PackedMove.promotionType(move));
+    }
+
+    @Test
+    void shouldConvertToRawMoveTest() {
+        int move = PackedMove.of(Bitboards.square(5, 2), Bitboards.square(5, 4), PackedMove.NORMAL);
+        int promotion = PackedMove.promotion(Bitboards.square(1, 7), Bitboards.square(1, 8), Piece.Type.QUEEN);
+
+        assertEquals(RawMove.of(Position.of(5, 2), Position.of(5, 4)), PackedMove.toRawMove(move));
+        RawMove rawPromotion = PackedMove.toRawMove(promotion);
+        assertInstanceOf(RawPromotion.class, rawPromotion);
+        assertEquals(Piece.Type.QUEEN, ((RawPromotion) rawPromotion).getType());
+    }
+
+    @Test
+    void shouldRoundTripGeneratedMovesTest() {
+        ChessBoard chessBoard = FENParser.getInstance().parseFEN(KIWIPETE_FEN);
+        MoveList moves = new MoveList();
+        chessBoard.getGenerator().getAllPossibleMoves(moves);
+
+        assertEquals(48, moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            ExecutableMove executableMove = PackedMove.toExecutableMove(move, chessBoard);
+            assertEquals(move, PackedMove.of(executableMove));
+            assertEquals(move, PackedMove.of(PackedMove.toRawMove(move), chessBoard.getBoard()));
+        }
+    }
+
+    @Test
+    void shouldCreateCastleWithRookMoveTest() {
+        ChessBoard chessBoard = FENParser.getInstance().parseFEN(KIWIPETE_FEN);
+        int move = PackedMove.of(Bitboards.square(5, 1), Bitboards.square(3, 1), PackedMove.CASTLE);
+
+        ExecutableMove executableMove = PackedMove.toExecutableMove(move, chessBoard);
+        assertInstanceOf(Castle.class, executableMove);
+        assertEquals(RawMove.of(Position.of(1, 1), Position.of(4, 1)), ((Castle) executableMove).getRookMove());
+        assertEquals(Castle.Type.LONG, ((Castle) executableMove).getType());
+    }
+
+    @Test
+    void shouldCreatePromotionForMovingColorTest() {
+        ChessBoard chessBoard = FENParser.getInstance().parseFEN("8/P6k/8/8/8/8/8/K7 w - - ");
+        int move = PackedMove.promotion(Bitboards.square(1, 7), Bitboards.square(1, 8), Piece.Type.ROOK);
+
+        ExecutableMove executableMove = PackedMove.toExecutableMove(move, chessBoard);
+        assertInstanceOf(Promotion.class, executableMove);
+        assertEquals(Piece.Type.ROOK, chessBoard.makeMove(executableMove).getField(Position.of(1, 8)).getPiece().getType());
+    }
+
+    @Test
+    void moveListShouldGrowAndClearTest() {
+        MoveList moves = new MoveList(1);
+        moves.add(1);
+        moves.add(2);
+
+        assertEquals(2, moves.size());
+        assertTrue(moves.contains(2));
+        moves.clear();
+        assertTrue(moves.isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> moves.get(0));
+    }
+}
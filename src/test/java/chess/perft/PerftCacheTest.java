@@ -0,0 +1,61 @@
+package chess.perft;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftCacheTest {
+
+    @Test
+    void shouldReturnStoredCountTest() {
+        PerftCache cache = new PerftCache(1);
+        cache.store(0x1234_5678_9ABC_DEF0L, 4, 197281);
+
+        assertEquals(197281, cache.probe(0x1234_5678_9ABC_DEF0L, 4));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getProbes());
+    }
+
+    @Test
+    void shouldMissOnOtherDepthOrKeyTest() {
+        PerftCache cache = new PerftCache(1);
+        cache.store(42, 3, 8902);
+
+        assertEquals(-1, cache.probe(42, 4));
+        assertEquals(-1, cache.probe(43, 3));
+        assertEquals(0, cache.getHitRate());
+    }
+
+    @Test
+    void shouldKeepDeeperEntryOnCollisionTest() {
+        PerftCache cache = new PerftCache(1);
+        long key = 1;
+        long collidingKey = key + (1L << 20);
+        long otherKey = key + (2L << 20);
+        cache.store(key, 5, 100);
+        cache.store(collidingKey, 2, 10);
+        cache.store(otherKey, 3, 20);
+
+        assertEquals(100, cache.probe(key, 5));
+        assertEquals(-1, cache.probe(collidingKey, 2));
+        assertEquals(20, cache.probe(otherKey, 3));
+    }
+
+    @Test
+    void clearShouldRemoveEntriesAndStatisticsTest() {
+        PerftCache cache = new PerftCache(1);
+        cache.store(42, 3, 8902);
+        cache.probe(42, 3);
+
+        cache.clear();
+
+        assertEquals(0, cache.getProbes());
+        assertEquals(-1, cache.probe(42, 3));
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void shouldRejectNonPositiveSizeTest() {
+        assertThrows(IllegalArgumentException.class, () -> new PerftCache(0));
+    }
+}
@@ -0,0 +1,187 @@
+package data.model;
+
+import chess.Position;
+import chess.moves.raw.RawMove;
+import data.model.diagrams.ArenaDiagram;
+import data.model.diagrams.Diagram;
+import data.model.metadata.GameData;
+import data.model.metadata.MetaData;
+import data.pgn.ParsedPGN;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataModelTest {
+    private final RawMove e4 = RawMove.of(Position.of(5, 2), Position.of(5, 4));
+    private final RawMove d4 = RawMove.of(Position.of(4, 2), Position.of(4, 4));
+    private final RawMove e5 = RawMove.of(Position.of(5, 7), Position.of(5, 5));
+    private final RawMove c5 = RawMove.of(Position.of(3, 7), Position.of(3, 5));
+    private final RawMove d5 = RawMove.of(Position.of(4, 7), Position.of(4, 5));
+
+    private ParsedPGN game(String event, RawMove... moves) {
+        MetaData metaData = new GameData(event, "site", "date", "round", "white", "black", "result", moves.length);
+        return new ParsedPGN(metaData, Optional.of(new ArrayDeque<>(List.of(moves))));
+    }
+
+    private List<ParsedPGN> games() {
+        return List.of(
+                game("event1", e4, e5),
+                game("event2", e4, c5),
+                game("event3", d4, d5),
+                game("event4", e4),
+                new ParsedPGN(new GameData("broken", "site", "date", "round", "white", "black", "result", 0), Optional.empty()),
+                game("event5", e4, e5, d4));
+    }
+
+    @Test
+    void insertAllShouldMatchSingleInsertsTest() {
+        for (int chunkSize : List.of(1, 2, 100)) {
+            DataModel expected = new DataModel();
+            games().stream()
+                    .filter(parsedPGN -> parsedPGN.moves().isPresent())
+                    .forEach(parsedPGN -> expected.insert(new ArrayDeque<>(parsedPGN.moves().get()), parsedPGN.metadata()));
+            DataModel actual = new DataModel();
+
+            int size = actual.insertAll(games().iterator(), chunkSize);
+
+            assertEquals(5, size);
+            assertEquals(5, actual.getGames().size());
+            for (GameData gameData : expected.getGames().getGameData()) {
+                assertEquals(path(expected.getGames().get(gameData)), path(actual.getGames().get(gameData)));
+                assertTrue(actual.getGames().get(gameData).getMetaData().contains(gameData));
+            }
+        }
+    }
+
+    @Test
+    void insertAllShouldRejectNonPositiveChunkTest() {
+        assertThrows(IllegalArgumentException.class, () -> new DataModel().insertAll(games().iterator(), 0));
+    }
+
+    private final RawMove nf3 = RawMove.of(Position.of(7, 1), Position.of(6, 3));
+    private final RawMove nf6 = RawMove.of(Position.of(7, 8), Position.of(6, 6));
+
+    /**
+     * Second game of each pair expands diagrams of first one, so position after four moves is stored in diagram.
+     */
+    private List<ParsedPGN> transposedGames() {
+        return List.of(
+                game("event1", e4, e5, nf3, nf6),
+                game("event2", e4, e5, nf3, nf6, d4),
+                game("event3", nf3, nf6, e4, e5),
+                game("event4", nf3, nf6, e4, e5, d4));
+    }
+
+    @Test
+    void mergeTranspositionsWhenEnabledTest() {
+        for (boolean merge : List.of(false, true)) {
+            DataModel dataModel = new DataModel();
+            dataModel.setMergeTranspositions(merge);
+
+            transposedGames().forEach(parsedPGN -> dataModel.insert(new ArrayDeque<>(parsedPGN.moves().orElseThrow()), parsedPGN.metadata()));
+
+            Diagram transposed = dataModel.getGames().get(transposedGames().get(2).metadata());
+            assertEquals(merge, transposed.getTransposition().isPresent());
+            assertEquals(List.of(nf3, nf6, e4, e5), path(transposed));
+        }
+    }
+
+    @Test
+    void deleteShouldNotLinkGamesToRemovedDiagramsTest() {
+        DataModel dataModel = new DataModel();
+        dataModel.setMergeTranspositions(true);
+        dataModel.insertAll(transposedGames().subList(0, 2).iterator());
+        Diagram root = dataModel.getActualNode().getRoot();
+
+        dataModel.delete(root.getNextDiagrams().get(0));
+        dataModel.insertAll(transposedGames().subList(2, 4).iterator());
+
+        Diagram diagram = dataModel.getGames().get(transposedGames().get(2).metadata());
+        assertEquals(1, root.getNextDiagrams().size());
+        assertTrue(diagram.getTransposition().isEmpty());
+        assertEquals(List.of(nf3, nf6, e4, e5), path(diagram));
+        assertTrue(root.subtree().anyMatch(node -> node == diagram));
+    }
+
+    @Test
+    void mergeInsertedGamesWithMadeMovesTest() {
+        DataModel dataModel = new DataModel();
+        dataModel.setMergeTranspositions(true);
+        dataModel.insertAll(List.of(game("event0", d4, d5)).iterator());
+        for (RawMove move : List.of(e4, e5, nf3, nf6)) {
+            dataModel.makeMove(move);
+        }
+        Diagram made = dataModel.getActualNode();
+
+        dataModel.insertAll(transposedGames().subList(2, 4).iterator());
+
+        Diagram diagram = dataModel.getGames().get(transposedGames().get(2).metadata());
+        assertSame(made, diagram.getTransposition().orElseThrow());
+        assertEquals(List.of(nf3, nf6, e4, e5), path(diagram));
+    }
+
+    @Test
+    void deleteRootShouldThrowTest() {
+        DataModel dataModel = new DataModel();
+        assertThrows(IllegalArgumentException.class, () -> dataModel.delete(dataModel.getActualNode()));
+    }
+
+    private List<RawMove> path(Diagram diagram) {
+        List<RawMove> result = new ArrayList<>();
+        diagram.getPathFromRoot().forEach(node -> node.getCreatingMove().ifPresent(result::add));
+        return result;
+    }
+
+    @Test
+    void openArenaShouldFindActualNodeTest() {
+        DataModel dataModel = new DataModel();
+        dataModel.insertAll(games().iterator());
+        dataModel.makeMove(e4);
+
+        ArenaDiagram diagram = dataModel.openArena().orElseThrow();
+
+        assertEquals(e4, diagram.getCreatingMove().orElseThrow());
+        assertEquals(4, diagram.getGameCount());
+        assertEquals(2, diagram.getNextDiagrams().size());
+    }
+
+    @Test
+    void openArenaShouldFollowChangesOfTreeTest() {
+        DataModel dataModel = new DataModel();
+        dataModel.insertAll(games().iterator());
+        ArenaDiagram root = dataModel.openArena().orElseThrow();
+
+        dataModel.makeMove(d4);
+        dataModel.makeMove(e5);
+        dataModel.insertAll(List.of(game("event6", d4, e5), game("event7", c5)).iterator());
+        ArenaDiagram diagram = dataModel.openArena().orElseThrow();
+
+        assertEquals(root, diagram.getRoot());
+        assertEquals(e5, diagram.getCreatingMove().orElseThrow());
+        assertEquals(1, diagram.getGameCount());
+        assertEquals(7, root.getGameCount());
+        assertEquals(3, root.getNextDiagrams().size());
+    }
+
+    @Test
+    void arenaTreeShouldBrowseArenaTest() {
+        DataModel dataModel = new DataModel();
+        dataModel.insertAll(games().iterator());
+        TreeDataModel tree = dataModel.arenaAsTree();
+
+        ArenaDiagram root = (ArenaDiagram) tree.getRoot();
+        ArenaDiagram e4Node = root.getNextDiagram(e4).orElseThrow();
+        int index = tree.getIndexOfChild(root, e4Node);
+
+        assertEquals(2, tree.getChildCount(root));
+        assertEquals(e4Node, tree.getChild(root, index));
+        assertEquals(4, e4Node.getGameCount());
+        assertFalse(tree.isLeaf(e4Node));
+        assertEquals(-1, tree.getIndexOfChild(root, dataModel.getActualNode().getNextDiagramOnPath(0)));
+    }
+}
@@ -0,0 +1,59 @@
+package data.model;
+
+import data.model.diagrams.Diagram;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionIndexTest {
+    private final long key = 1;
+    private final long collidingKey = 1L << 32;
+    private final long otherCollidingKey = 2L << 32 | 3;
+
+    @Test
+    void putIfAbsentShouldKeepFirstDiagramTest() {
+        PositionIndex index = new PositionIndex();
+        Diagram first = new Diagram();
+        index.putIfAbsent(key, first);
+        index.putIfAbsent(key, new Diagram());
+
+        assertSame(first, index.get(key));
+        assertNull(index.get(collidingKey));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void removeShouldKeepCollidingKeysTest() {
+        PositionIndex index = new PositionIndex();
+        Diagram first = new Diagram();
+        Diagram second = new Diagram();
+        Diagram third = new Diagram();
+        index.putIfAbsent(key, first);
+        index.putIfAbsent(collidingKey, second);
+        index.putIfAbsent(otherCollidingKey, third);
+
+        index.remove(collidingKey, first);
+        assertSame(second, index.get(collidingKey));
+        index.remove(key, first);
+
+        assertNull(index.get(key));
+        assertSame(second, index.get(collidingKey));
+        assertSame(third, index.get(otherCollidingKey));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void shouldGrowTest() {
+        PositionIndex index = new PositionIndex();
+        Diagram[] diagrams = new Diagram[5000];
+        for (int i = 0; i < diagrams.length; i++) {
+            diagrams[i] = new Diagram();
+            index.putIfAbsent(i * 0x9E3779B97F4A7C15L, diagrams[i]);
+        }
+
+        for (int i = 0; i < diagrams.length; i++) {
+            assertSame(diagrams[i], index.get(i * 0x9E3779B97F4A7C15L));
+        }
+        assertEquals(diagrams.length, index.size());
+    }
+}
@@ -0,0 +1,34 @@
+package data.model.diagrams;
+
+import data.annotations.Annotations;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArenaAnnotationsTest {
+    @Test
+    void shouldCreateAnnotationsOnlyOnceTest() {
+        ArenaAnnotations annotations = new ArenaAnnotations();
+
+        Annotations created = annotations.getOrCreate(7);
+
+        assertSame(created, annotations.getOrCreate(7));
+        assertSame(created, annotations.get(7));
+        assertNull(annotations.get(8));
+        assertEquals(1, annotations.size());
+    }
+
+    @Test
+    void shouldKeepAnnotationsAfterGrowTest() {
+        ArenaAnnotations annotations = new ArenaAnnotations();
+        Annotations[] created = new Annotations[1000];
+        for (int node = 0; node < created.length; node++) {
+            created[node] = annotations.getOrCreate(node);
+        }
+
+        for (int node = 0; node < created.length; node++) {
+            assertSame(created[node], annotations.get(node));
+        }
+        assertEquals(created.length, annotations.size());
+    }
+}
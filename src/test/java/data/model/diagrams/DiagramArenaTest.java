@@ -0,0 +1,242 @@
+package data.model.diagrams;
+
+import chess.Position;
+import chess.board.ChessBoard;
+import chess.formats.algebraic.LongAlgebraicFactory;
+import chess.moves.raw.RawMove;
+import chess.moves.raw.RawPromotion;
+import chess.pieces.Piece;
+import data.model.DiagramController;
+import data.model.metadata.GameData;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiagramArenaTest {
+    private final RawMove e4 = RawMove.of(Position.of(5, 2), Position.of(5, 4));
+    private final RawMove d4 = RawMove.of(Position.of(4, 2), Position.of(4, 4));
+    private final RawMove e5 = RawMove.of(Position.of(5, 7), Position.of(5, 5));
+    private final RawMove c5 = RawMove.of(Position.of(3, 7), Position.of(3, 5));
+
+    @Test
+    void insertShouldShareCommonPrefixTest() {
+        DiagramArena arena = new DiagramArena();
+
+        int first = arena.insert(List.of(e4, e5));
+        int second = arena.insert(List.of(e4, c5));
+        int third = arena.insert(List.of(d4));
+
+        assertEquals(5, arena.size());
+        assertEquals(arena.getParent(first), arena.getParent(second));
+        assertEquals(2, arena.getChildCount(DiagramArena.ROOT));
+        assertEquals(3, arena.getGameCount(DiagramArena.ROOT));
+        assertEquals(2, arena.getGameCount(arena.getParent(first)));
+        assertEquals(1, arena.getGameCount(third));
+        assertEquals(2, arena.depth(second));
+        assertEquals(c5, arena.getMove(second));
+        assertEquals(DiagramArena.NONE, arena.getChild(third, e5));
+    }
+
+    @Test
+    void shouldKeepChildrenInInsertionOrderTest() {
+        DiagramArena arena = new DiagramArena();
+        int e4Node = arena.addChild(DiagramArena.ROOT, e4);
+        int d4Node = arena.addChild(DiagramArena.ROOT, d4);
+
+        assertEquals(e4Node, arena.getFirstChild(DiagramArena.ROOT));
+        assertEquals(d4Node, arena.getNextSibling(e4Node));
+        assertEquals(DiagramArena.NONE, arena.getNextSibling(d4Node));
+        assertEquals(e4Node, arena.addChild(DiagramArena.ROOT, e4));
+    }
+
+    @Test
+    void shouldGrowBeyondCapacityTest() {
+        DiagramArena arena = new DiagramArena(1);
+        RawMove knightOut = RawMove.of(Position.of(7, 1), Position.of(6, 3));
+        RawMove knightBack = RawMove.of(Position.of(6, 3), Position.of(7, 1));
+        ArrayDeque<RawMove> game = new ArrayDeque<>();
+        for (int i = 0; i < 50; i++) {
+            game.add(i % 2 == 0 ? knightOut : knightBack);
+        }
+
+        int node = arena.insert(game);
+
+        assertEquals(51, arena.size());
+        assertEquals(50, arena.depth(node));
+    }
+
+    @Test
+    void shouldStorePromotionTypeTest() {
+        DiagramArena arena = new DiagramArena();
+        RawMove queen = new RawPromotion(Position.of(1, 7), Position.of(1, 8), Piece.Type.QUEEN);
+        RawMove knight = new RawPromotion(Position.of(1, 7), Position.of(1, 8), Piece.Type.KNIGHT);
+
+        int queenNode = arena.addChild(DiagramArena.ROOT, queen);
+        int knightNode = arena.addChild(DiagramArena.ROOT, knight);
+
+        assertNotEquals(queenNode, knightNode);
+        assertEquals(Piece.Type.KNIGHT, ((RawPromotion) arena.getMove(knightNode)).getType());
+    }
+
+    @Test
+    void setBestShouldClearSiblingsTest() {
+        DiagramArena arena = new DiagramArena();
+        int e4Node = arena.addChild(DiagramArena.ROOT, e4);
+        int d4Node = arena.addChild(DiagramArena.ROOT, d4);
+
+        arena.setBest(e4Node);
+        arena.setBest(d4Node);
+
+        assertFalse(arena.isBest(e4Node));
+        assertTrue(arena.isBest(d4Node));
+    }
+
+    @Test
+    void ofShouldCopyTreeWithLazyMovesTest() {
+        Diagram tree = new Diagram();
+        DiagramController controller = new DiagramController();
+        controller.insert(tree, new ArrayDeque<>(List.of(e4, e5, d4)), new GameData("event1", "site", "date", "round", "white", "black", "result", 3));
+        controller.insert(tree, new ArrayDeque<>(List.of(e4, c5)), new GameData("event2", "site", "date", "round", "white", "black", "result", 2));
+        controller.insert(tree, new ArrayDeque<>(List.of(e4)), new GameData("event3", "site", "date", "round", "white", "black", "result", 1));
+
+        DiagramArena arena = DiagramArena.of(tree);
+
+        int e4Node = arena.getChild(DiagramArena.ROOT, e4);
+        int d4Node = arena.getChild(arena.getChild(e4Node, e5), d4);
+        assertEquals(5, arena.size());
+        assertEquals(3, arena.getGameCount(DiagramArena.ROOT));
+        assertEquals(3, arena.getGameCount(e4Node));
+        assertEquals(1, arena.getGameCount(d4Node));
+        assertEquals(1, arena.getGameCount(arena.getChild(e4Node, c5)));
+    }
+
+    @Test
+    void diagramViewShouldBrowseArenaTest() {
+        DiagramArena arena = new DiagramArena();
+        int node = arena.insert(List.of(e4, e5));
+        arena.insert(List.of(e4, c5));
+
+        ArenaDiagram diagram = arena.getDiagram(node);
+        ArenaDiagram parent = diagram.getParent().orElseThrow();
+        ChessBoard expected = new ChessBoard()
+                .makeMove(e4).validate().orElseThrow().getResult()
+                .makeMove(e5).validate().orElseThrow().getResult();
+
+        assertEquals(expected, diagram.getBoard());
+        assertEquals(arena.getBoard(node), diagram.getBoard());
+        assertEquals(2, diagram.depth());
+        assertEquals(e5, diagram.getCreatingMove().orElseThrow());
+        assertEquals(2, parent.getNextDiagrams().size());
+        assertEquals(0, parent.getNextDiagrams().indexOf(arena.getDiagram(node)));
+        assertEquals(arena.getDiagram(DiagramArena.ROOT), diagram.getRoot());
+        assertEquals(3, diagram.getPathFromRoot().size());
+        assertEquals("Root", diagram.getRoot().getMoveName());
+        assertThrows(UnsupportedOperationException.class, () -> parent.getNextDiagrams().add(diagram));
+    }
+
+    @Test
+    void shouldStoreMovingPieceOfReplayedNodesTest() {
+        DiagramArena arena = new DiagramArena();
+        RawMove nf3 = RawMove.of(Position.of(7, 1), Position.of(6, 3));
+        int e5Node = arena.insert(List.of(e4, e5));
+        int nf3Node = arena.addChild(e5Node, nf3);
+
+        ChessBoard board = arena.getBoard(e5Node);
+
+        assertSame(board, arena.getBoard(e5Node));
+        assertEquals(Piece.Type.PAWN, arena.getMovingPiece(e5Node));
+        assertEquals(Piece.Type.KNIGHT, arena.getMovingPiece(nf3Node));
+        assertEquals(LongAlgebraicFactory.getInstance().moveToLongAlgebraic(board, nf3),
+                arena.getDiagram(nf3Node).getMoveName());
+    }
+
+    @Test
+    void annotationsShouldBeStoredInArenaTest() {
+        DiagramArena arena = new DiagramArena();
+        int node = arena.insert(List.of(e4, e5));
+
+        arena.getDiagram(node).getAnnotations().setTextAnnotation("open game");
+        arena.getDiagram(node).setAsBest();
+
+        assertEquals("open game", arena.getDiagram(node).getAnnotations().getTextAnnotation());
+        assertTrue(arena.getDiagram(node).isBest());
+    }
+
+    @Test
+    void ofShouldCountTransposedGamesInTheirMoveOrderTest() {
+        RawMove nf6 = RawMove.of(Position.of(7, 8), Position.of(6, 6));
+        RawMove c4 = RawMove.of(Position.of(3, 2), Position.of(3, 4));
+        RawMove e6 = RawMove.of(Position.of(5, 7), Position.of(5, 6));
+        RawMove nc3 = RawMove.of(Position.of(2, 1), Position.of(3, 3));
+        RawMove g3 = RawMove.of(Position.of(7, 2), Position.of(7, 3));
+        List<List<RawMove>> games = List.of(
+                List.of(d4, nf6, c4, e6, nc3),
+                List.of(d4, nf6, c4, e6, g3),
+                List.of(c4, e6, d4, nf6, nc3),
+                List.of(c4, e6, d4, nf6)
+        );
+        Diagram tree = new Diagram();
+        DiagramController controller = new DiagramController(true);
+        DiagramArena expected = new DiagramArena();
+        for (List<RawMove> game : games) {
+            GameData gameData = new GameData("event", "site", "date", "round", "white", "black", "result", game.size());
+            controller.insert(tree, new ArrayDeque<>(game), gameData);
+            expected.insert(game);
+        }
+
+        DiagramArena arena = DiagramArena.of(tree);
+
+        int transposed = follow(arena, c4, e6, d4, nf6);
+        assertTrue(tree.getNextDiagram(c4).orElseThrow().getNextDiagrams().get(0).getNextDiagrams().get(0)
+                .getNextDiagrams().get(0).getTransposition().isPresent());
+        assertEquals(4, arena.getGameCount(DiagramArena.ROOT));
+        assertEquals(2, arena.getGameCount(follow(arena, d4)));
+        assertEquals(2, arena.getGameCount(transposed));
+        assertEquals(1, arena.getGameCount(follow(arena, c4, e6, d4, nf6, nc3)));
+        assertEquals(DiagramArena.NONE, arena.getChild(transposed, g3));
+        assertEquals(1, arena.getGameCount(follow(arena, d4, nf6, c4, e6, nc3)));
+        assertEquals(expected.size(), arena.size());
+        for (int node = 0; node < expected.size(); node++) {
+            assertEquals(expected.getGameCount(node), arena.getGameCount(follow(arena, path(expected, node))));
+        }
+    }
+
+    private int follow(DiagramArena arena, RawMove... moves) {
+        int node = DiagramArena.ROOT;
+        for (RawMove move : moves) {
+            node = arena.getChild(node, move);
+        }
+        return node;
+    }
+
+    private RawMove[] path(DiagramArena arena, int node) {
+        RawMove[] result = new RawMove[arena.depth(node)];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = arena.getMove(node);
+            node = arena.getParent(node);
+        }
+        return result;
+    }
+
+    @Test
+    void ofShouldCopyAnnotationsTest() {
+        Diagram tree = new Diagram();
+        DiagramController controller = new DiagramController();
+        Diagram diagram = controller.makeMove(tree, e4, null).diagram();
+        diagram.getAnnotations().setTextAnnotation("king pawn");
+
+        DiagramArena arena = DiagramArena.of(tree);
+        arena.getAnnotations(arena.getChild(DiagramArena.ROOT, e4)).setTextAnnotation("changed");
+
+        assertEquals("king pawn", diagram.getAnnotations().getTextAnnotation());
+        assertTrue(arena.getAnnotations(DiagramArena.ROOT).isEmpty());
+    }
+
+    @Test
+    void ofShouldRejectFENTreeTest() {
+        assertThrows(IllegalArgumentException.class, () -> DiagramArena.of(new FENDiagram(null, new ChessBoard())));
+    }
+}
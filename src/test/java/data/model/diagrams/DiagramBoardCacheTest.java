@@ -0,0 +1,78 @@
+package data.model.diagrams;
+
+import chess.Position;
+import chess.board.ChessBoard;
+import chess.formats.fen.FENParser;
+import chess.moves.raw.RawMove;
+import data.model.DiagramController;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiagramBoardCacheTest {
+    private final RawMove e4 = RawMove.of(Position.of(5, 2), Position.of(5, 4));
+    private final RawMove e5 = RawMove.of(Position.of(5, 7), Position.of(5, 5));
+    private final RawMove nf3 = RawMove.of(Position.of(7, 1), Position.of(6, 3));
+
+    @Test
+    void shouldReuseCachedBoardTest() {
+        Diagram root = new Diagram();
+        Diagram diagram = new DiagramController().makeMove(root, e4, null).diagram();
+
+        ChessBoard first = diagram.getBoard();
+        ChessBoard second = diagram.getBoard();
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void shouldReplayFromCachedParentTest() {
+        DiagramController controller = new DiagramController();
+        Diagram son = controller.makeMove(new Diagram(), e4, null).diagram();
+        Diagram grandson = controller.makeMove(son, e5, null).diagram();
+        Diagram greatGrandson = controller.makeMove(grandson, nf3, null).diagram();
+        ChessBoard expected = new ChessBoard()
+                .makeMove(e4).validate().orElseThrow().getResult()
+                .makeMove(e5).validate().orElseThrow().getResult()
+                .makeMove(nf3).validate().orElseThrow().getResult();
+
+        DiagramBoardCache.getInstance().clear();
+        ChessBoard parentBoard = grandson.getBoard();
+
+        assertEquals(expected, greatGrandson.getBoard());
+        assertSame(parentBoard, grandson.getBoard());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedTest() {
+        DiagramBoardCache cache = new DiagramBoardCache(2);
+        Diagram first = new Diagram();
+        Diagram second = new Diagram();
+        Diagram third = new Diagram();
+
+        cache.put(first, new ChessBoard());
+        cache.put(second, new ChessBoard());
+        cache.get(first);
+        cache.put(third, new ChessBoard());
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(first));
+        assertNull(cache.get(second));
+        assertNotNull(cache.get(third));
+    }
+
+    @Test
+    void shouldReplayFromFENRootTest() {
+        String fen = "4k3/8/8/8/8/8/4P3/4K3 w - - ";
+        ChessBoard chessBoard = FENParser.getInstance().parseFEN(fen);
+        Diagram root = new FENDiagram(null, chessBoard);
+        Diagram diagram = new DiagramController().makeMove(root, e4, null).diagram();
+
+        assertEquals(chessBoard.makeMove(e4).validate().orElseThrow().getResult(), diagram.getBoard());
+    }
+
+    @Test
+    void shouldRejectNonPositiveCapacityTest() {
+        assertThrows(IllegalArgumentException.class, () -> new DiagramBoardCache(0));
+    }
+}
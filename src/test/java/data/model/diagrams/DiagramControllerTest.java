@@ -3,8 +3,14 @@ package data.model.diagrams;
 import chess.Position;
 import chess.board.ChessBoard;
 import chess.moves.raw.RawMove;
+import chess.moves.raw.RawPromotion;
+import chess.moves.valid.executable.ExecutableMove;
+import chess.pieces.Piece;
+import data.json.JsonParser;
+import data.json.PagedJsonFactory;
 import data.model.DiagramController;
 import data.model.diagrams.Diagram;
+import data.model.games.GamesRepository;
 import data.model.games.GamesUpdateEvent;
 import data.model.metadata.GameData;
 import data.model.metadata.MetaData;
@@ -12,7 +18,10 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -293,6 +302,133 @@ class DiagramControllerTest {
             assertTrue(diagram.getMetaData().contains(metaData1));
             assertTrue(diagram.getMetaData().contains(metaData2));
         }
+
+        @Test
+        void insertLongGamesDifferentAtLastMoveTest() {
+            Diagram tree = new Diagram();
+            List<RawMove> cycle = List.of(
+                    RawMove.of(Position.of(7, 1), Position.of(6, 3)),
+                    RawMove.of(Position.of(7, 8), Position.of(6, 6)),
+                    RawMove.of(Position.of(6, 3), Position.of(7, 1)),
+                    RawMove.of(Position.of(6, 6), Position.of(7, 8)));
+            ArrayDeque<RawMove> moves1 = new ArrayDeque<>();
+            for (int i = 0; i < 10; i++) {
+                moves1.addAll(cycle);
+            }
+            ArrayDeque<RawMove> moves2 = new ArrayDeque<>(moves1);
+            RawMove last1 = RawMove.of(Position.of(5, 2), Position.of(5, 4));
+            RawMove last2 = RawMove.of(Position.of(4, 2), Position.of(4, 4));
+            moves1.add(last1);
+            moves2.add(last2);
+            MetaData metaData1 = new GameData("event1", "site", "date", "round", "white", "black", "result", 41);
+            MetaData metaData2 = new GameData("event2", "site", "date", "round", "white", "black", "result", 41);
+
+            new DiagramController().insert(tree, moves1, metaData1);
+            GamesUpdateEvent event = new DiagramController().insert(tree, moves2, metaData2);
+
+            Diagram diagram = event.gamesMap().get(metaData2);
+            assertEquals(41, diagram.depth());
+            assertEquals(last2, diagram.getCreatingMove().orElseThrow());
+            assertEquals(2, diagram.getParent().orElseThrow().getNextDiagrams().size());
+            assertEquals(41, event.gamesMap().get(metaData1).depth());
+            ChessBoard expected = new ChessBoard().makeMove(last2).validate().orElseThrow().getResult();
+            assertEquals(expected, diagram.getBoard());
+        }
+    }
+
+    @Nested
+    class InsertAllTests {
+        private List<ArrayDeque<RawMove>> randomGames(int count, long seed) {
+            Random random = new Random(seed);
+            List<ArrayDeque<RawMove>> result = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                ArrayDeque<RawMove> moves = new ArrayDeque<>();
+                ChessBoard chessBoard = new ChessBoard();
+                int length = random.nextInt(10);
+                for (int j = 0; j < length; j++) {
+                    List<ExecutableMove> legal = chessBoard.getGenerator().getAllPossibleExecutableMoves().stream()
+                            .sorted(Comparator.comparing(Object::toString))
+                            .limit(3)
+                            .toList();
+                    if (legal.isEmpty()) {
+                        break;
+                    }
+                    RawMove move = legal.get(random.nextInt(legal.size())).getRepresentation();
+                    moves.add(move);
+                    chessBoard = chessBoard.makeMove(move).validate().orElseThrow().getResult();
+                }
+                result.add(moves);
+            }
+            return result;
+        }
+
+        private List<RawMove> storedMoves(Diagram diagram, GameData gameData) {
+            List<RawMove> result = new ArrayList<>();
+            diagram.getPathFromRoot().forEach(node -> node.getCreatingMove().ifPresent(result::add));
+            if (diagram.isLazy() && gameData.length() > diagram.depth()) {
+                result.addAll(diagram.getLazyMovesList());
+            }
+            return result;
+        }
+
+        /**
+         * Merged games continue in diagrams of other move order, their own moves are kept by repository.
+         */
+        @Test
+        void insertAllShouldStoreEveryGameTest() {
+            for (boolean merge : List.of(false, true)) {
+                List<ArrayDeque<RawMove>> games = randomGames(300, 7);
+                List<MetaData> metaData = new ArrayList<>();
+                for (int i = 0; i < games.size(); i++) {
+                    metaData.add(new GameData("event" + i, "site", "date", "round", "white", "black", "result", games.get(i).size()));
+                }
+                Diagram tree = new Diagram();
+                GamesUpdateEvent event = GamesUpdateEvent.create();
+
+                new DiagramController(merge).insertAll(tree, games, metaData, event);
+                GamesRepository repository = new GamesRepository();
+                repository.update(event);
+
+                assertEquals(games.size(), event.gamesMap().size());
+                assertEquals(!merge, event.transpositionsMap().isEmpty());
+                for (int i = 0; i < games.size(); i++) {
+                    GameData gameData = (GameData) metaData.get(i);
+                    Diagram diagram = repository.get(gameData);
+                    assertTrue(diagram.getMetaData().contains(gameData));
+                    assertEquals(List.copyOf(games.get(i)), storedMoves(diagram, gameData));
+                }
+            }
+        }
+
+        @Test
+        void insertAllShouldShareCommonMovesTest() {
+            RawMove e4 = RawMove.of(Position.of(5, 2), Position.of(5, 4));
+            RawMove e5 = RawMove.of(Position.of(5, 7), Position.of(5, 5));
+            RawMove c5 = RawMove.of(Position.of(3, 7), Position.of(3, 5));
+            List<ArrayDeque<RawMove>> games = List.of(
+                    new ArrayDeque<>(List.of(e4, e5)),
+                    new ArrayDeque<>(List.of(e4, c5)),
+                    new ArrayDeque<>(List.of(e4, e5)));
+            List<MetaData> metaData = List.of(
+                    new GameData("event1", "site", "date", "round", "white", "black", "result", 2),
+                    new GameData("event2", "site", "date", "round", "white", "black", "result", 2),
+                    new GameData("event3", "site", "date", "round", "white", "black", "result", 2));
+            Diagram tree = new Diagram();
+
+            new DiagramController().insertAll(tree, games, metaData, GamesUpdateEvent.create());
+
+            assertEquals(1, tree.getNextDiagrams().size());
+            Diagram afterE4 = tree.getNextDiagrams().get(0);
+            assertEquals(2, afterE4.getNextDiagrams().size());
+            Diagram afterE5 = afterE4.getNextDiagram(e5).orElseThrow();
+            assertEquals(List.of(metaData.get(0), metaData.get(2)), afterE5.getMetaData());
+        }
+
+        @Test
+        void insertAllShouldRejectDifferentSizesTest() {
+            assertThrows(IllegalArgumentException.class, () -> new DiagramController()
+                    .insertAll(new Diagram(), List.of(new ArrayDeque<>()), List.of(), GamesUpdateEvent.create()));
+        }
     }
 
     @Nested
@@ -354,4 +490,240 @@ class DiagramControllerTest {
             assertThrows(IllegalStateException.class, () -> new DiagramController().expand(diagram));
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    class TranspositionTests {
+        private final RawMove d4 = RawMove.of(Position.of(4, 2), Position.of(4, 4));
+        private final RawMove c4 = RawMove.of(Position.of(3, 2), Position.of(3, 4));
+        private final RawMove nf6 = RawMove.of(Position.of(7, 8), Position.of(6, 6));
+        private final RawMove e6 = RawMove.of(Position.of(5, 7), Position.of(5, 6));
+        private final RawMove nc3 = RawMove.of(Position.of(2, 1), Position.of(3, 3));
+        private final RawMove g3 = RawMove.of(Position.of(7, 2), Position.of(7, 3));
+
+        private final MetaData metaData1 = gameData("event1");
+        private final MetaData metaData2 = gameData("event2");
+        private final MetaData metaData3 = gameData("event3");
+        private final MetaData metaData4 = gameData("event4");
+
+        /**
+         * Tag values keep quotes, as they are parsed from PGN, so games can be saved to JSON.
+         */
+        private static MetaData gameData(String event) {
+            return new GameData("\"" + event + "\"", "\"site\"", "\"date\"", "\"round\"", "\"white\"", "\"black\"", "\"result\"", 5);
+        }
+
+        private Diagram insertGames(DiagramController controller) {
+            Diagram tree = new Diagram();
+            controller.insert(tree, new ArrayDeque<>(List.of(d4, nf6, c4, e6, nc3)), metaData1);
+            controller.insert(tree, new ArrayDeque<>(List.of(d4, nf6, c4, e6, g3)), metaData2);
+            controller.insert(tree, new ArrayDeque<>(List.of(c4, e6, d4, nf6, nc3)), metaData3);
+            controller.insert(tree, new ArrayDeque<>(List.of(c4, e6, d4, nf6, g3)), metaData4);
+            return tree;
+        }
+
+        private Diagram follow(Diagram diagram, RawMove... moves) {
+            for (RawMove move : moves) {
+                diagram = diagram.getNextDiagrams().stream()
+                        .filter(next -> next.getCreatingMove().orElseThrow().equals(move))
+                        .findFirst()
+                        .orElseThrow();
+            }
+            return diagram;
+        }
+
+        @Test
+        void mergeTransposedPositionsTest() {
+            Diagram tree = insertGames(new DiagramController(true));
+
+            Diagram original = follow(tree, d4, nf6, c4, e6);
+            Diagram transposed = follow(tree, c4, e6, d4, nf6);
+
+            assertTrue(original.getTransposition().isEmpty());
+            assertTrue(transposed.getTransposition().isPresent());
+            assertSame(original, transposed.getTransposition().get());
+            assertEquals(nf6, transposed.getCreatingMove().orElseThrow());
+            assertEquals(d4, transposed.getParent().orElseThrow().getCreatingMove().orElseThrow());
+            assertSame(original.getNextDiagrams(), transposed.getNextDiagrams());
+            assertEquals(original.getBoard(), transposed.getBoard());
+
+            assertEquals(2, original.getNextDiagrams().size());
+            List<MetaData> afterNc3 = follow(original, nc3).getMetaData();
+            List<MetaData> afterG3 = follow(original, g3).getMetaData();
+            assertTrue(afterNc3.containsAll(List.of(metaData1, metaData3)));
+            assertTrue(afterG3.containsAll(List.of(metaData2, metaData4)));
+            assertTrue(follow(tree, c4, e6, d4).getMetaData().isEmpty());
+        }
+
+        private RawMove move(int fromX, int fromY, int toX, int toY) {
+            return RawMove.of(Position.of(fromX, fromY), Position.of(toX, toY));
+        }
+
+        @Test
+        void mergeTransposedPositionsAfterSpecialMovesTest() {
+            RawMove nf3 = move(7, 1, 6, 3);
+            RawMove be2 = move(6, 1, 5, 2);
+            RawMove a6 = move(1, 7, 1, 6);
+            RawMove a5 = move(1, 6, 1, 5);
+            List<RawMove> opening = List.of(move(5, 2, 5, 4), move(7, 8, 6, 6), move(5, 4, 5, 5), move(4, 7, 4, 5),
+                    move(5, 5, 4, 6), move(2, 8, 3, 6), move(4, 6, 3, 7), move(5, 7, 5, 6),
+                    new RawPromotion(Position.of(3, 7), Position.of(4, 8), Piece.Type.QUEEN), move(5, 8, 4, 8));
+            List<RawMove> ending = List.of(move(5, 1, 7, 1), move(1, 5, 1, 4));
+            DiagramController controller = new DiagramController(true);
+            Diagram tree = new Diagram();
+            for (List<RawMove> order : List.of(List.of(nf3, a6, be2, a5), List.of(be2, a6, nf3, a5))) {
+                for (RawMove last : List.of(move(8, 2, 8, 3), move(8, 2, 8, 4))) {
+                    ArrayDeque<RawMove> game = new ArrayDeque<>(opening);
+                    game.addAll(order);
+                    game.addAll(ending);
+                    game.add(last);
+                    controller.insert(tree, game, gameData(order + " " + last));
+                }
+            }
+
+            Diagram original = follow(follow(tree, opening.toArray(RawMove[]::new)), nf3, a6, be2);
+            Diagram transposed = follow(follow(tree, opening.toArray(RawMove[]::new)), be2, a6, nf3);
+
+            assertSame(original, transposed.getTransposition().orElseThrow());
+            assertEquals(original.getBoard(), transposed.getBoard());
+            assertEquals(2, follow(follow(original, a5), ending.toArray(RawMove[]::new)).getNextDiagrams().size());
+        }
+
+        @Test
+        void keepTreeWithoutMergingTest() {
+            Diagram tree = insertGames(new DiagramController());
+
+            Diagram original = follow(tree, d4, nf6, c4, e6);
+            Diagram transposed = follow(tree, c4, e6, d4, nf6);
+
+            assertTrue(transposed.getTransposition().isEmpty());
+            assertNotSame(original.getNextDiagrams(), transposed.getNextDiagrams());
+            assertTrue(follow(transposed, nc3).getMetaData().contains(metaData3));
+            assertFalse(follow(original, nc3).getMetaData().contains(metaData3));
+        }
+
+        private GamesRepository insertGamesIntoRepository(DiagramController controller, Diagram tree) {
+            GamesRepository repository = new GamesRepository();
+            repository.update(controller.insert(tree, new ArrayDeque<>(List.of(d4, nf6, c4, e6, nc3)), metaData1));
+            repository.update(controller.insert(tree, new ArrayDeque<>(List.of(d4, nf6, c4, e6, g3)), metaData2));
+            repository.update(controller.insert(tree, new ArrayDeque<>(List.of(c4, e6, d4, nf6, nc3)), metaData3));
+            repository.update(controller.insert(tree, new ArrayDeque<>(List.of(c4, e6, d4, nf6, g3)), metaData4));
+            return repository;
+        }
+
+        private List<RawMove> movesFromRoot(Diagram diagram) {
+            return diagram.getPathFromRoot().stream()
+                    .flatMap(node -> node.getCreatingMove().stream())
+                    .toList();
+        }
+
+        @Test
+        void keepMoveOrderOfTransposedGamesTest() {
+            Diagram tree = new Diagram();
+            GamesRepository repository = insertGamesIntoRepository(new DiagramController(true), tree);
+
+            assertEquals(List.of(d4, nf6, c4, e6, nc3), movesFromRoot(repository.get(metaData1)));
+            assertEquals(List.of(c4, e6, d4, nf6, nc3), movesFromRoot(repository.get(metaData3)));
+            assertEquals(List.of(c4, e6, d4, nf6, g3), movesFromRoot(repository.get(metaData4)));
+            assertTrue(repository.get(metaData3).getMetaData().contains(metaData1));
+            assertEquals(repository.get(metaData1).getBoard(), repository.get(metaData3).getBoard());
+        }
+
+        @Test
+        void nextDiagramsOnPathOfTranspositionTest() {
+            Diagram tree = insertGames(new DiagramController(true));
+            Diagram transposed = follow(tree, c4, e6, d4, nf6);
+
+            List<Diagram> next = transposed.getNextDiagramsOnPath();
+
+            assertEquals(2, next.size());
+            assertEquals(List.of(c4, e6, d4, nf6, nc3), movesFromRoot(next.get(0)));
+            assertSame(transposed.getNextDiagrams().get(0).getMetaData(), next.get(0).getMetaData());
+            assertEquals(1, transposed.getNextDiagramsOnPath().indexOf(next.get(1)));
+            assertEquals(next.get(1).hashCode(), transposed.getNextDiagramsOnPath().get(1).hashCode());
+            assertSame(follow(tree, d4).getNextDiagrams(), follow(tree, d4).getNextDiagramsOnPath());
+        }
+
+        @Test
+        void nextDiagramOnPathByIndexTest() {
+            Diagram tree = insertGames(new DiagramController(true));
+            Diagram original = follow(tree, d4, nf6, c4, e6);
+            Diagram transposed = follow(tree, c4, e6, d4, nf6);
+
+            Diagram view = transposed.getNextDiagramOnPath(1);
+
+            assertEquals(transposed.getNextDiagramsOnPath().get(1), view);
+            assertSame(transposed, view.getParent().orElseThrow());
+            assertEquals(1, transposed.indexOfNextDiagram(view));
+            assertEquals(1, transposed.indexOfNextDiagram(transposed.getNextDiagramOnPath(1)));
+            assertEquals(0, original.indexOfNextDiagram(original.getNextDiagramOnPath(0)));
+            assertEquals(-1, transposed.indexOfNextDiagram(follow(tree, d4)));
+        }
+
+        @Test
+        void setAsBestThroughViewTest() {
+            Diagram tree = insertGames(new DiagramController(true));
+            Diagram original = follow(tree, d4, nf6, c4, e6);
+            Diagram transposed = follow(tree, c4, e6, d4, nf6);
+            original.getNextDiagrams().get(0).setAsBest();
+
+            transposed.getNextDiagramOnPath(1).setAsBest();
+
+            assertTrue(original.getNextDiagrams().get(1).isBest());
+            assertFalse(original.getNextDiagrams().get(0).isBest());
+            assertTrue(transposed.getNextDiagramOnPath(1).isBest());
+            assertFalse(transposed.getNextDiagramOnPath(0).isBest());
+        }
+
+        @Test
+        void viewShouldUseBoardOfStoredDiagramTest() {
+            Diagram tree = insertGames(new DiagramController(true));
+            Diagram original = follow(tree, d4, nf6, c4, e6);
+            Diagram transposed = follow(tree, c4, e6, d4, nf6);
+
+            ChessBoard storedBoard = original.getNextDiagrams().get(0).getBoard();
+
+            assertSame(storedBoard, transposed.getNextDiagramOnPath(0).getBoard());
+        }
+
+        @Test
+        void createNextDiagramOfTransposedPositionTest() {
+            RawMove nf3 = RawMove.of(Position.of(7, 1), Position.of(6, 3));
+            MetaData metaData5 = gameData("event5");
+            DiagramController controller = new DiagramController(true);
+            Diagram tree = new Diagram();
+            GamesRepository repository = insertGamesIntoRepository(controller, tree);
+
+            repository.update(controller.insert(tree, new ArrayDeque<>(List.of(c4, e6, d4, nf6, nf3)), metaData5));
+
+            Diagram afterNf3 = follow(tree, d4, nf6, c4, e6, nf3);
+            assertSame(follow(tree, d4, nf6, c4, e6), afterNf3.getParent().orElseThrow());
+            assertEquals(List.of(c4, e6, d4, nf6, nf3), movesFromRoot(repository.get(metaData5)));
+        }
+
+        @Test
+        void keepMoveOrderOfTransposedGamesAfterSaveAndLoadTest() {
+            Diagram tree = new Diagram();
+            insertGamesIntoRepository(new DiagramController(true), tree);
+            StringBuilder json = new StringBuilder();
+            new PagedJsonFactory(tree).forEachRemaining(json::append);
+
+            Diagram loaded = new JsonParser().parseJson(json.toString());
+            GamesRepository repository = new GamesRepository();
+            repository.setNewTree(loaded);
+
+            Diagram transposed = follow(loaded, c4, e6, d4, nf6);
+            assertSame(follow(loaded, d4, nf6, c4, e6), transposed.getTransposition().orElseThrow());
+            assertEquals(4, repository.size());
+            assertEquals(List.of(d4, nf6, c4, e6, nc3), movesFromRoot(loadedGame(repository, "event1")));
+            assertEquals(List.of(c4, e6, d4, nf6, nc3), movesFromRoot(loadedGame(repository, "event3")));
+            assertEquals(List.of(c4, e6, d4, nf6, g3), movesFromRoot(loadedGame(repository, "event4")));
+        }
+
+        private Diagram loadedGame(GamesRepository repository, String event) {
+            return repository.get(repository.getGameData().stream()
+                    .filter(gameData -> gameData.event().equals(event))
+                    .findFirst()
+                    .orElseThrow());
+        }
+    }
+}
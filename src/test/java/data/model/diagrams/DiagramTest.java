@@ -8,6 +8,11 @@ import data.model.diagrams.Diagram;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -59,4 +64,63 @@ class DiagramTest {
         assertEquals(root, son.getRoot());
         assertEquals(root, grandson.getRoot());
     }
-}
\ No newline at end of file
+
+    private Diagram deepLine(Diagram root, int plies) {
+        RawMove[] cycle = {
+                RawMove.of(Position.of(7, 1), Position.of(6, 3)),
+                RawMove.of(Position.of(7, 8), Position.of(6, 6)),
+                RawMove.of(Position.of(6, 3), Position.of(7, 1)),
+                RawMove.of(Position.of(6, 6), Position.of(7, 8))};
+        DiagramController controller = new DiagramController();
+        Diagram diagram = root;
+        for (int i = 0; i < plies; i++) {
+            diagram = controller.makeMove(diagram, cycle[i % cycle.length], null).diagram();
+        }
+        return diagram;
+    }
+
+    @Test
+    void getPathFromRootOfDeepDiagramTest() {
+        Diagram root = new Diagram();
+        Diagram leaf = deepLine(root, 20_000);
+
+        Diagram[] path = leaf.getPathArray();
+        List<Diagram> list = leaf.getPathFromRoot();
+
+        assertEquals(20_000, leaf.depth());
+        assertEquals(20_001, path.length);
+        assertSame(root, path[0]);
+        assertSame(leaf, path[20_000]);
+        assertEquals(Arrays.asList(path), list);
+        assertSame(root, leaf.getRoot());
+    }
+
+    @Test
+    void subtreeShouldVisitEachDiagramOnceTest() {
+        Diagram root = new Diagram();
+        deepLine(root, 2_000);
+        DiagramController controller = new DiagramController();
+        new ChessBoard().getGenerator().getAllPossibleExecutableMoves()
+                .forEach(move -> controller.makeMove(root, move.getRepresentation(), null));
+
+        List<Diagram> sequential = root.subtree().toList();
+        Set<Diagram> parallel = root.subtree().parallel().collect(Collectors.toSet());
+
+        assertEquals(2_000 + 20, sequential.size());
+        assertSame(root, sequential.get(0));
+        assertEquals(new HashSet<>(sequential), parallel);
+        assertEquals(sequential.size(), parallel.size());
+    }
+
+    @Test
+    void subtreeShouldNotDescendIntoLazyDiagramsTest() {
+        Diagram lazy = new Diagram(
+                RawMove.of(Position.of(4, 2), Position.of(4, 4)),
+                new ChessBoard(),
+                new Diagram(),
+                new ArrayDeque<>(List.of(RawMove.of(Position.of(4, 7), Position.of(4, 5))))
+        );
+
+        assertEquals(List.of(lazy), lazy.subtree().toList());
+    }
+}
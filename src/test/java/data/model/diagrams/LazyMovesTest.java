@@ -0,0 +1,98 @@
+package data.model.diagrams;
+
+import chess.Position;
+import chess.moves.raw.RawMove;
+import chess.moves.raw.RawPromotion;
+import chess.pieces.Piece;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyMovesTest {
+    private final RawMove e4 = RawMove.of(Position.of(5, 2), Position.of(5, 4));
+    private final RawMove e5 = RawMove.of(Position.of(5, 7), Position.of(5, 5));
+    private final RawMove h8 = RawMove.of(Position.of(8, 1), Position.of(8, 8));
+    private final RawMove promotion = new RawPromotion(Position.of(1, 7), Position.of(1, 8), Piece.Type.KNIGHT);
+
+    @Test
+    void shouldRoundTripMovesTest() {
+        LazyMoves moves = LazyMoves.of(List.of(e4, e5, h8, promotion));
+
+        assertEquals(List.of(e4, e5, h8, promotion), moves.toList());
+        assertEquals(4, moves.size());
+        assertInstanceOf(RawPromotion.class, moves.get(3));
+        assertEquals(Piece.Type.KNIGHT, ((RawPromotion) moves.get(3)).getType());
+    }
+
+    @Test
+    void pollShouldMoveOffsetTest() {
+        LazyMoves moves = LazyMoves.of(List.of(e4, e5));
+
+        assertEquals(e4, moves.poll());
+        assertEquals(1, moves.size());
+        assertTrue(moves.startsWith(e5));
+        assertFalse(moves.startsWith(e4));
+        assertEquals(e5, moves.peek());
+        assertEquals(e5, moves.poll());
+        assertTrue(moves.isEmpty());
+        assertNull(moves.poll());
+        assertNull(moves.peek());
+        assertThrows(IndexOutOfBoundsException.class, () -> moves.get(0));
+    }
+
+    @Test
+    void shouldMatchRemainingMovesTest() {
+        LazyMoves game = LazyMoves.of(List.of(e4, e5, h8));
+        LazyMoves tail = LazyMoves.of(List.of(e5, h8));
+
+        assertFalse(game.matches(tail));
+        game.poll();
+        assertTrue(game.matches(tail));
+        assertTrue(tail.matches(game));
+        assertFalse(tail.matches(LazyMoves.of(List.of(e5))));
+    }
+
+    @Test
+    void copyShouldKeepOwnOffsetTest() {
+        LazyMoves moves = LazyMoves.of(List.of(e4, e5));
+        LazyMoves copy = moves.copy();
+
+        copy.poll();
+
+        assertEquals(2, moves.size());
+        assertEquals(1, copy.size());
+        assertEquals(List.of(e5), copy.toList());
+    }
+
+    @Test
+    void mismatchShouldCountCommonMovesTest() {
+        LazyMoves game = LazyMoves.of(List.of(e4, e5, h8));
+
+        assertEquals(2, game.mismatch(LazyMoves.of(List.of(e4, e5, promotion))));
+        assertEquals(1, game.mismatch(LazyMoves.of(List.of(e4))));
+        assertEquals(3, game.mismatch(LazyMoves.of(List.of(e4, e5, h8))));
+        assertEquals(0, game.mismatch(LazyMoves.of(List.of(e5))));
+    }
+
+    @Test
+    void compareShouldOrderPrefixFirstTest() {
+        LazyMoves shorter = LazyMoves.of(List.of(e4));
+        LazyMoves longer = LazyMoves.of(List.of(e4, e5));
+
+        assertTrue(shorter.compareTo(longer) < 0);
+        assertTrue(longer.compareTo(shorter) > 0);
+        assertEquals(0, longer.compareTo(LazyMoves.of(List.of(e4, e5))));
+    }
+
+    @Test
+    void skipShouldMoveOffsetTest() {
+        LazyMoves moves = LazyMoves.of(List.of(e4, e5, h8));
+
+        moves.skip(2);
+
+        assertEquals(List.of(h8), moves.toList());
+        assertThrows(IndexOutOfBoundsException.class, () -> moves.skip(2));
+    }
+}
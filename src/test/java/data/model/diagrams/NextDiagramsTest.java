@@ -0,0 +1,94 @@
+package data.model.diagrams;
+
+import chess.Position;
+import chess.board.ChessBoard;
+import chess.moves.raw.RawMove;
+import chess.moves.raw.RawPromotion;
+import chess.moves.valid.executable.ExecutableMove;
+import chess.pieces.Piece;
+import data.model.DiagramController;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NextDiagramsTest {
+
+    private List<RawMove> firstMoves() {
+        return new ChessBoard().getGenerator().getAllPossibleExecutableMoves().stream()
+                .map(ExecutableMove::getRepresentation)
+                .toList();
+    }
+
+    private Diagram wideTree() {
+        Diagram root = new Diagram();
+        DiagramController controller = new DiagramController();
+        firstMoves().forEach(move -> controller.makeMove(root, move, null));
+        return root;
+    }
+
+    @Test
+    void shouldFindChildrenOfWideDiagramTest() {
+        Diagram root = wideTree();
+        List<RawMove> moves = firstMoves();
+
+        assertEquals(20, root.getNextDiagrams().size());
+        for (int i = 0; i < moves.size(); i++) {
+            Diagram next = root.getNextDiagram(moves.get(i)).orElseThrow();
+            assertSame(root.getNextDiagrams().get(i), next);
+            assertEquals(i, root.getNextDiagrams().indexOf(next));
+        }
+        assertTrue(root.getNextDiagram(RawMove.of(Position.of(5, 2), Position.of(5, 5))).isEmpty());
+    }
+
+    @Test
+    void shouldFindChildrenAfterRemovalTest() {
+        Diagram root = wideTree();
+        List<RawMove> moves = firstMoves();
+        Diagram removed = root.getNextDiagrams().get(3);
+
+        root.getNextDiagrams().remove(removed);
+
+        assertTrue(root.getNextDiagram(moves.get(3)).isEmpty());
+        assertEquals(-1, root.getNextDiagrams().indexOf(removed));
+        Diagram last = root.getNextDiagram(moves.get(19)).orElseThrow();
+        assertEquals(18, root.getNextDiagrams().indexOf(last));
+    }
+
+    @Test
+    void shouldKeepInsertionOrderAndFirstMatchTest() {
+        NextDiagrams nextDiagrams = new NextDiagrams();
+        Diagram root = new Diagram();
+        RawMove move = RawMove.of(Position.of(5, 2), Position.of(5, 4));
+        Diagram first = new Diagram(move, new ChessBoard(), root);
+        Diagram duplicate = new Diagram(move, new ChessBoard(), root);
+
+        nextDiagrams.add(first);
+        nextDiagrams.add(duplicate);
+        for (RawMove other : firstMoves()) {
+            nextDiagrams.add(new Diagram(other, new ChessBoard(), root));
+        }
+
+        assertSame(first, nextDiagrams.find(move));
+        assertEquals(1, nextDiagrams.indexOf(duplicate));
+    }
+
+    @Test
+    void shouldDistinguishPromotionsTest() {
+        NextDiagrams nextDiagrams = new NextDiagrams();
+        Diagram root = new Diagram();
+        RawMove move = RawMove.of(Position.of(1, 7), Position.of(1, 8));
+        RawMove promotion = new RawPromotion(move, Piece.Type.QUEEN);
+        RawMove otherPromotion = new RawPromotion(move, Piece.Type.ROOK);
+        Diagram promoted = new Diagram(promotion, new ChessBoard(), root, new ArrayDeque<>());
+        nextDiagrams.add(promoted);
+        for (int i = 0; i < NextDiagrams.INDEXED_SIZE; i++) {
+            nextDiagrams.add(new Diagram(RawMove.of(Position.of(i + 1, 2), Position.of(i + 1, 3)), new ChessBoard(), root));
+        }
+
+        assertNull(nextDiagrams.find(move));
+        assertSame(promoted, nextDiagrams.find(otherPromotion));
+    }
+}